@@ -0,0 +1,138 @@
+package net.md_5.bungee.api.plugin;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.md_5.bungee.event.EventHandlerMethod;
+import net.md_5.bungee.event.HandlerExecutor;
+
+/**
+ * Runs async handlers on a fixed number of shared threads, with at most a
+ * few handlers of each plugin at a time so one slow plugin cannot take all
+ * of them. Handlers beyond that wait for the running ones of their plugin,
+ * up to a limit after which they are rejected and the bus skips them.
+ */
+final class AsyncListenerExecutor implements HandlerExecutor
+{
+
+    /**
+     * Threads shared by all plugins, set by the
+     * net.md_5.bungee.async_listeners.threads property.
+     */
+    static final int THREADS = Integer.getInteger( "net.md_5.bungee.async_listeners.threads", 16 );
+    /**
+     * Handlers of one plugin running at once, set by the
+     * net.md_5.bungee.async_listeners.per_plugin property.
+     */
+    static final int PER_PLUGIN = Integer.getInteger( "net.md_5.bungee.async_listeners.per_plugin", 4 );
+    /**
+     * Handlers of one plugin waiting to run, set by the
+     * net.md_5.bungee.async_listeners.queue property.
+     */
+    static final int QUEUE = Integer.getInteger( "net.md_5.bungee.async_listeners.queue", 1024 );
+    //
+    // Holds at most PER_PLUGIN tasks of each limiter, which bound their own queues
+    private final ThreadPoolExecutor pool = new ThreadPoolExecutor( THREADS, THREADS, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+            new ThreadFactoryBuilder().setNameFormat( "Async Listener Thread #%1$d" ).setDaemon( true ).build() );
+    // Keyed by plugin, null for listeners of the proxy itself
+    private final Map<Plugin, Limiter> limiters = new HashMap<>();
+    private final ConcurrentMap<Object, Limiter> limitersByListener = new ConcurrentHashMap<>();
+    // For listeners registered with the bus directly
+    private final Limiter unowned = new Limiter();
+
+    AsyncListenerExecutor()
+    {
+        pool.allowCoreThreadTimeOut( true );
+    }
+
+    synchronized void register(Plugin plugin, Object listener)
+    {
+        Limiter limiter = limiters.get( plugin );
+        if ( limiter == null )
+        {
+            limiter = new Limiter();
+            limiters.put( plugin, limiter );
+        }
+        limitersByListener.put( listener, limiter );
+    }
+
+    synchronized void unregister(Object listener)
+    {
+        Limiter limiter = limitersByListener.remove( listener );
+        if ( limiter != null && !limitersByListener.containsValue( limiter ) )
+        {
+            // Handlers already waiting still run, later ones of the plugin get a new limiter
+            limiters.values().remove( limiter );
+        }
+    }
+
+    @Override
+    public void execute(EventHandlerMethod handler, Runnable task)
+    {
+        Limiter limiter = limitersByListener.get( handler.getListener() );
+        ( ( limiter != null ) ? limiter : unowned ).execute( task );
+    }
+
+    private final class Limiter
+    {
+
+        private final Queue<Runnable> queue = new LinkedBlockingQueue<>( QUEUE );
+        private final AtomicInteger running = new AtomicInteger();
+
+        private void execute(Runnable task)
+        {
+            if ( !queue.offer( task ) )
+            {
+                throw new RejectedExecutionException( "Too many async handlers waiting for their plugin" );
+            }
+            drain();
+        }
+
+        private void drain()
+        {
+            while ( !queue.isEmpty() )
+            {
+                int current = running.get();
+                if ( current >= PER_PLUGIN )
+                {
+                    // A running task drains again when it is done
+                    return;
+                }
+                if ( !running.compareAndSet( current, current + 1 ) )
+                {
+                    continue;
+                }
+
+                final Runnable task = queue.poll();
+                if ( task == null )
+                {
+                    running.decrementAndGet();
+                    continue;
+                }
+                pool.execute( new Runnable()
+                {
+                    @Override
+                    public void run()
+                    {
+                        try
+                        {
+                            task.run();
+                        } finally
+                        {
+                            running.decrementAndGet();
+                            drain();
+                        }
+                    }
+                } );
+            }
+        }
+    }
+}
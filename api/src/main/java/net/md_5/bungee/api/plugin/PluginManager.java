@@ -4,6 +4,7 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
+import com.google.common.util.concurrent.MoreExecutors;
 import java.io.File;
 import java.io.InputStream;
 import java.net.URL;
@@ -11,6 +12,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -18,6 +20,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.Stack;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.logging.Handler;
@@ -28,13 +33,17 @@ import com.google.inject.Guice;
 import com.google.inject.Module;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import net.md_5.bungee.api.Callback;
 import net.md_5.bungee.api.ChatColor;
 import net.md_5.bungee.api.CommandSender;
 import net.md_5.bungee.api.ProxyInstanceModule;
 import net.md_5.bungee.api.ProxyServer;
 import net.md_5.bungee.api.connection.ProxiedPlayer;
+import net.md_5.bungee.api.event.AsyncEvent;
 import net.md_5.bungee.event.EventBus;
 import net.md_5.bungee.event.EventHandler;
+import net.md_5.bungee.event.EventHandlerMethod;
+import net.md_5.bungee.event.Timing;
 import org.yaml.snakeyaml.Yaml;
 import org.yaml.snakeyaml.constructor.Constructor;
 import org.yaml.snakeyaml.introspector.PropertyUtils;
@@ -63,6 +72,9 @@ public class PluginManager implements PluginFinder
     private final Map<String, PluginClassloader> classLoaders = new HashMap<>();
     private final Multimap<Plugin, Command> commandsByPlugin = ArrayListMultimap.create();
     private final Multimap<Plugin, net.avicus.minecraft.api.event.Listener> listenersByPlugin = ArrayListMultimap.create();
+    private final AsyncListenerExecutor asyncExecutor = new AsyncListenerExecutor();
+    // Null while timings are off
+    private volatile ConcurrentMap<Command, Timing> commandTimings;
 
     @SuppressWarnings("unchecked")
     public PluginManager(ProxyServer proxy)
@@ -77,6 +89,8 @@ public class PluginManager implements PluginFinder
         yaml = new Yaml( yamlConstructor );
 
         eventBus = new EventBus( proxy.getLogger() );
+        eventBus.setAsyncExecutor( asyncExecutor );
+        setTimings( Boolean.getBoolean( "net.md_5.bungee.timings" ) );
     }
 
     /**
@@ -104,6 +118,16 @@ public class PluginManager implements PluginFinder
     {
         while ( commandMap.values().remove( command ) );
         commandsByPlugin.values().remove( command );
+        removeTiming( command );
+    }
+
+    private void removeTiming(Command command)
+    {
+        ConcurrentMap<Command, Timing> commandTimings = this.commandTimings;
+        if ( commandTimings != null )
+        {
+            commandTimings.remove( command );
+        }
     }
 
     /**
@@ -117,6 +141,7 @@ public class PluginManager implements PluginFinder
         {
             Command command = it.next();
             while ( commandMap.values().remove( command ) );
+            removeTiming( command );
             it.remove();
         }
     }
@@ -165,6 +190,9 @@ public class PluginManager implements PluginFinder
         }
 
         String[] args = Arrays.copyOfRange( split, 1, split.length );
+        // Tab completion would skew the timings of running the command
+        ConcurrentMap<Command, Timing> commandTimings = ( tabResults == null ) ? this.commandTimings : null;
+        long start = ( commandTimings != null ) ? System.nanoTime() : 0;
         try
         {
             if ( tabResults == null )
@@ -190,10 +218,91 @@ public class PluginManager implements PluginFinder
         {
             sender.sendMessage( ChatColor.RED + "An internal error occurred whilst executing this command, please check the console log for details." );
             ProxyServer.getInstance().getLogger().log( Level.WARNING, "Error in dispatching command", ex );
+        } finally
+        {
+            if ( commandTimings != null )
+            {
+                Timing timing = commandTimings.get( command );
+                if ( timing == null )
+                {
+                    Timing existing = commandTimings.putIfAbsent( command, timing = new Timing() );
+                    if ( existing != null )
+                    {
+                        timing = existing;
+                    }
+                }
+                timing.record( System.nanoTime() - start );
+            }
         }
         return true;
     }
 
+    /**
+     * Turns recording how long each event handler and command takes on or
+     * off. Turning it on starts from scratch. Also turned on at startup by
+     * the net.md_5.bungee.timings property.
+     *
+     * @param enabled whether to record timings
+     */
+    public void setTimings(boolean enabled)
+    {
+        eventBus.setTimings( enabled );
+        commandTimings = ( enabled ) ? new ConcurrentHashMap<Command, Timing>() : null;
+    }
+
+    public boolean isTimings()
+    {
+        return commandTimings != null;
+    }
+
+    /**
+     * Gets how long each event handler and command took within the rolling
+     * window of {@link Timing}, with the plugins they belong to.
+     *
+     * @return the timings, empty while they are off
+     */
+    public List<TimingsEntry> getTimings()
+    {
+        List<TimingsEntry> entries = new ArrayList<>();
+        ConcurrentMap<Command, Timing> commandTimings = this.commandTimings;
+        if ( commandTimings == null )
+        {
+            return entries;
+        }
+
+        Map<Object, Plugin> owners = new IdentityHashMap<>();
+        for ( Map.Entry<Plugin, net.avicus.minecraft.api.event.Listener> entry : listenersByPlugin.entries() )
+        {
+            owners.put( entry.getValue(), entry.getKey() );
+        }
+        for ( Map.Entry<Plugin, Command> entry : commandsByPlugin.entries() )
+        {
+            owners.put( entry.getValue(), entry.getKey() );
+        }
+
+        for ( Map.Entry<EventHandlerMethod, Map<Class<?>, Timing>> handler : eventBus.getTimings().entrySet() )
+        {
+            EventHandlerMethod method = handler.getKey();
+            String name = method.getMethod().getDeclaringClass().getName() + "#" + method.getMethod().getName();
+            for ( Map.Entry<Class<?>, Timing> timing : handler.getValue().entrySet() )
+            {
+                entries.add( new TimingsEntry( timing.getKey().getSimpleName(), name, getOwnerName( owners, method.getListener() ), timing.getValue().snapshot() ) );
+            }
+        }
+        for ( Map.Entry<Command, Timing> timing : commandTimings.entrySet() )
+        {
+            Command command = timing.getKey();
+            entries.add( new TimingsEntry( "/" + command.getName(), command.getClass().getName(), getOwnerName( owners, command ), timing.getValue().snapshot() ) );
+        }
+        return entries;
+    }
+
+    private String getOwnerName(Map<Object, Plugin> owners, Object handler)
+    {
+        Plugin plugin = owners.get( handler );
+        return ( plugin != null ) ? plugin.getDescription().getName() : proxy.getName();
+    }
+
     /**
      * Returns the {@link Plugin} objects corresponding to all loaded plugins.
      *
@@ -460,9 +569,30 @@ public class PluginManager implements PluginFinder
     {
         Preconditions.checkNotNull( event, "event" );
 
+        if ( !eventBus.hasListeners( event.getClass() ) )
+        {
+            event.postCall();
+            return event;
+        }
+
         long start = System.nanoTime();
-        eventBus.post( event );
-        event.postCall();
+        if ( event instanceof AsyncEvent )
+        {
+            // Completes through its own callback, so async listeners need not be waited for
+            final T posted = event;
+            eventBus.post( event, MoreExecutors.directExecutor(), new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    posted.postCall();
+                }
+            } );
+        } else
+        {
+            eventBus.post( event );
+            event.postCall();
+        }
 
         long elapsed = System.nanoTime() - start;
         if ( elapsed > 250000000 )
@@ -475,6 +605,48 @@ public class PluginManager implements PluginFinder
         return event;
     }
 
+    /**
+     * Dispatch an event to all subscribed listeners without waiting for those
+     * marked with {@link EventHandler#async()}, which run on a shared pool.
+     * The listeners after them and the callback are called through the given
+     * executor, so a connection can resume on its own event loop. If no
+     * listener is async the callback is called before this returns.
+     *
+     * @param <T> the type bounds, must be a class which extends event
+     * @param event the event to call
+     * @param resume the executor to continue on once async listeners are done
+     * @param done called with the event once it has been handled
+     * @return true if the callback was already called
+     */
+    public <T extends Event> boolean callEvent(final T event, Executor resume, final Callback<T> done)
+    {
+        Preconditions.checkNotNull( event, "event" );
+        Preconditions.checkNotNull( resume, "resume" );
+        Preconditions.checkNotNull( done, "done" );
+
+        return eventBus.post( event, resume, new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                event.postCall();
+                done.done( event, null );
+            }
+        } );
+    }
+
+    /**
+     * Checks whether any listener is registered for the given event class, so
+     * frequent events need not be created when nobody would receive them.
+     *
+     * @param eventClass the class of the event
+     * @return whether there are listeners for it
+     */
+    public boolean hasListeners(Class<? extends Event> eventClass)
+    {
+        return eventBus.hasListeners( eventClass );
+    }
+
     /**
      * Register a {@link Listener} for receiving called events. Methods in this
      * Object which wish to receive events must be annotated with the
@@ -489,6 +661,7 @@ public class PluginManager implements PluginFinder
     }
 
     public void registerListener(Plugin plugin, net.avicus.minecraft.api.event.Listener listener) {
+        asyncExecutor.register( plugin, listener );
         eventBus.register( listener );
         listenersByPlugin.put( plugin, listener );
     }
@@ -505,6 +678,7 @@ public class PluginManager implements PluginFinder
 
     public void unregisterListener(net.avicus.minecraft.api.event.Listener listener) {
         eventBus.unregister( listener );
+        asyncExecutor.unregister( listener );
         listenersByPlugin.values().remove( listener );
     }
 
@@ -515,7 +689,9 @@ public class PluginManager implements PluginFinder
     {
         for (Iterator<net.avicus.minecraft.api.event.Listener> it = listenersByPlugin.get(plugin ).iterator(); it.hasNext(); )
         {
-            eventBus.unregister( it.next() );
+            net.avicus.minecraft.api.event.Listener listener = it.next();
+            eventBus.unregister( listener );
+            asyncExecutor.unregister( listener );
             it.remove();
         }
     }
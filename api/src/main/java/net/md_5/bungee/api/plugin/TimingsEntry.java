@@ -0,0 +1,28 @@
+package net.md_5.bungee.api.plugin;
+
+import lombok.Data;
+import net.md_5.bungee.event.Timing;
+
+/**
+ * How long one event handler or command took recently, see
+ * {@link PluginManager#getTimings()}.
+ */
+@Data
+public class TimingsEntry
+{
+
+    /**
+     * The simple name of the event class, or the command with a leading
+     * slash.
+     */
+    private final String name;
+    /**
+     * The listener class and method, or the command class.
+     */
+    private final String handler;
+    /**
+     * The name of the owning plugin, or of the proxy itself.
+     */
+    private final String plugin;
+    private final Timing.Snapshot timing;
+}
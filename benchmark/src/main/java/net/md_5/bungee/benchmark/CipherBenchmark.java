@@ -0,0 +1,134 @@
+package net.md_5.bungee.benchmark;
+
+import com.google.common.base.Preconditions;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import net.md_5.bungee.jni.NativeCode;
+import net.md_5.bungee.jni.cipher.BungeeCipher;
+import net.md_5.bungee.jni.cipher.JavaCipher;
+import net.md_5.bungee.jni.cipher.NativeCipher;
+import net.md_5.bungee.netty.cipher.CipherDecoder;
+import net.md_5.bungee.netty.cipher.CipherEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Encrypts and decrypts the corpus with AES/CFB8, as done for every byte sent
+ * to and received from an online mode client.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CipherBenchmark
+{
+
+    private static final NativeCode<BungeeCipher> factory = new NativeCode( "native-cipher", JavaCipher.class, NativeCipher.class );
+    private static final SecretKey secret = new SecretKeySpec( new byte[ 16 ], "AES" );
+    private static final int BATCH = 16;
+    //
+    @Param(
+            {
+                "java", "native"
+            })
+    public String cipher;
+    //
+    private PacketCorpus corpus;
+    private EmbeddedChannel encoder;
+    private EmbeddedChannel decoder;
+    private int encryptIndex;
+    private int decryptIndex;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException, GeneralSecurityException
+    {
+        corpus = PacketCorpus.load();
+
+        encoder = new EmbeddedChannel( new CipherEncoder( newCipher( true ) ) );
+        encoder.config().setAllocator( PooledByteBufAllocator.DEFAULT );
+        decoder = new EmbeddedChannel( new CipherDecoder( newCipher( false ) ) );
+        decoder.config().setAllocator( PooledByteBufAllocator.DEFAULT );
+    }
+
+    private BungeeCipher newCipher(boolean forEncryption) throws GeneralSecurityException
+    {
+        BungeeCipher instance;
+        if ( cipher.equals( "native" ) )
+        {
+            Preconditions.checkState( factory.load(), "Native cipher is not available" );
+            instance = new NativeCipher();
+        } else
+        {
+            instance = new JavaCipher();
+        }
+        instance.init( forEncryption, secret );
+
+        return instance;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        encoder.finishAndReleaseAll();
+        decoder.finishAndReleaseAll();
+        corpus.release();
+    }
+
+    @Benchmark
+    public int encrypt()
+    {
+        encoder.writeOutbound( corpus.get( encryptIndex++ % corpus.size() ).retainedDuplicate() );
+
+        ByteBuf out = encoder.readOutbound();
+        int length = out.readableBytes();
+        out.release();
+        return length;
+    }
+
+    @Benchmark
+    public int encryptBatch()
+    {
+        // As many frames as a flush typically carries while relaying
+        for ( int i = 0; i < BATCH; i++ )
+        {
+            encoder.write( corpus.get( encryptIndex++ % corpus.size() ).retainedDuplicate() );
+        }
+        encoder.flush();
+
+        ByteBuf out = encoder.readOutbound();
+        int length = out.readableBytes();
+        out.release();
+        return length;
+    }
+
+    @Benchmark
+    public int decrypt()
+    {
+        // Decrypted in place, the contents of the corpus don't matter here
+        decoder.writeInbound( corpus.get( decryptIndex++ % corpus.size() ).retainedDuplicate() );
+
+        ByteBuf out = decoder.readInbound();
+        int length = out.readableBytes();
+        out.release();
+        return length;
+    }
+}
@@ -0,0 +1,69 @@
+package net.md_5.bungee.benchmark;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.md_5.bungee.chat.ComponentSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parses and serializes typical chat messages.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ComponentSerializerBenchmark
+{
+
+    private static final Map<String, String> MESSAGES = ImmutableMap.of(
+            "text", "{\"text\":\"Welcome to the server!\"}",
+            "extra", "{\"extra\":[{\"color\":\"gray\",\"text\":\"[Player123] \"},{\"text\":\"some ordinary chat text\"}],\"text\":\"\"}",
+            "translate", "{\"translate\":\"chat.type.text\",\"with\":[{\"text\":\"Player123\","
+            + "\"clickEvent\":{\"action\":\"suggest_command\",\"value\":\"/msg Player123 \"},"
+            + "\"hoverEvent\":{\"action\":\"show_text\",\"value\":{\"text\":\"Click to message\"}}},"
+            + "{\"text\":\"hello\",\"bold\":true,\"color\":\"gold\"}]}"
+    );
+    //
+    @Param(
+            {
+                "text", "extra", "translate"
+            })
+    public String message;
+    //
+    private String json;
+    private BaseComponent[] components;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        json = MESSAGES.get( message );
+        components = ComponentSerializer.parse( json );
+    }
+
+    @Benchmark
+    public BaseComponent[] parse()
+    {
+        return ComponentSerializer.parse( json );
+    }
+
+    @Benchmark
+    public String serialize()
+    {
+        return ComponentSerializer.toString( components );
+    }
+}
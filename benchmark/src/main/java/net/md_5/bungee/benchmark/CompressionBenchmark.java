@@ -0,0 +1,114 @@
+package net.md_5.bungee.benchmark;
+
+import com.google.common.base.Preconditions;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.md_5.bungee.compress.CompressFactory;
+import net.md_5.bungee.compress.PacketCompressor;
+import net.md_5.bungee.compress.PacketDecompressor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compresses and decompresses the corpus with the default threshold of 256
+ * bytes. The zlib implementation is picked once per JVM, so each parameter
+ * must run in its own fork. The libdeflate library has to be built for this
+ * platform first, see compile-native.sh.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CompressionBenchmark
+{
+
+    @Param(
+            {
+                "java", "native", "libdeflate"
+            })
+    public String zlib;
+    //
+    private PacketCorpus corpus;
+    private final List<ByteBuf> compressed = new ArrayList<>();
+    private EmbeddedChannel compressor;
+    private EmbeddedChannel decompressor;
+    private int compressIndex;
+    private int decompressIndex;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException
+    {
+        if ( zlib.equals( "native" ) )
+        {
+            System.setProperty( "net.md_5.bungee.libdeflate.disable", "true" );
+            Preconditions.checkState( CompressFactory.zlib.load(), "Native zlib is not available" );
+        } else if ( zlib.equals( "libdeflate" ) )
+        {
+            Preconditions.checkState( CompressFactory.zlib.load() && CompressFactory.zlib.isLoaded(), "libdeflate is not available" );
+        }
+        corpus = PacketCorpus.load();
+
+        compressor = new EmbeddedChannel( new PacketCompressor() );
+        compressor.config().setAllocator( PooledByteBufAllocator.DEFAULT );
+        decompressor = new EmbeddedChannel( new PacketDecompressor() );
+        decompressor.config().setAllocator( PooledByteBufAllocator.DEFAULT );
+
+        for ( ByteBuf packet : corpus.getPackets() )
+        {
+            compressor.writeOutbound( packet.retainedDuplicate() );
+            compressed.add( (ByteBuf) compressor.readOutbound() );
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        compressor.finishAndReleaseAll();
+        decompressor.finishAndReleaseAll();
+        for ( ByteBuf packet : compressed )
+        {
+            packet.release();
+        }
+        corpus.release();
+    }
+
+    @Benchmark
+    public int compress()
+    {
+        compressor.writeOutbound( corpus.get( compressIndex++ % corpus.size() ).retainedDuplicate() );
+
+        ByteBuf out = compressor.readOutbound();
+        int length = out.readableBytes();
+        out.release();
+        return length;
+    }
+
+    @Benchmark
+    public int decompress()
+    {
+        decompressor.writeInbound( compressed.get( decompressIndex++ % compressed.size() ).retainedDuplicate() );
+
+        ByteBuf out = decompressor.readInbound();
+        int length = out.readableBytes();
+        out.release();
+        return length;
+    }
+}
@@ -0,0 +1,72 @@
+package net.md_5.bungee.benchmark;
+
+import io.netty.buffer.ByteBuf;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import net.md_5.bungee.entitymap.EntityMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Rewrites the entity IDs of the corpus, either before the first server
+ * switch (both IDs the same) or after it. Rewrites happen in place, so every
+ * pass over the corpus swaps the IDs back again.
+ * <p>
+ * Spawn Player and Spectate packets look up players on the running proxy,
+ * so recorded corpora must not contain them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class EntityMapBenchmark
+{
+
+    @Param(
+            {
+                "false", "true"
+            })
+    public boolean switched;
+    //
+    private final EntityMap entityMap = EntityMap.getEntityMap( PacketCorpus.PROTOCOL_VERSION );
+    private PacketCorpus corpus;
+    private int clientEntityId;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException
+    {
+        corpus = PacketCorpus.load();
+        clientEntityId = ( switched ) ? PacketCorpus.CLIENT_ENTITY_ID : PacketCorpus.SERVER_ENTITY_ID;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        corpus.release();
+    }
+
+    @Benchmark
+    public int rewriteClientbound()
+    {
+        ByteBuf packet = corpus.get( index++ % corpus.size() ).retainedDuplicate();
+        packet = entityMap.rewriteClientbound( packet, PacketCorpus.SERVER_ENTITY_ID, clientEntityId );
+
+        int length = packet.readableBytes();
+        packet.release();
+        return length;
+    }
+}
@@ -0,0 +1,128 @@
+package net.md_5.bungee.benchmark;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import net.md_5.bungee.event.EventBus;
+import net.md_5.bungee.event.EventHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Posts a small event, like the permission checks fired for every command
+ * and tab completion, to listeners of different plugins. The reflection
+ * benchmark calls the same handlers the way the bus used to.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class EventBusBenchmark
+{
+
+    @Param(
+            {
+                "1", "4"
+            })
+    public int listeners;
+    //
+    private EventBus bus;
+    private Object[] targets;
+    private Method[] handlers;
+
+    @Setup(Level.Trial)
+    public void setup() throws ReflectiveOperationException
+    {
+        Class<?>[] types =
+        {
+            FirstListener.class, SecondListener.class, ThirdListener.class, FourthListener.class
+        };
+
+        bus = new EventBus();
+        targets = new Object[ listeners ];
+        handlers = new Method[ listeners ];
+        for ( int i = 0; i < listeners; i++ )
+        {
+            targets[i] = types[i].newInstance();
+            handlers[i] = types[i].getMethod( "onCheck", CheckEvent.class );
+            bus.register( targets[i] );
+        }
+    }
+
+    @Benchmark
+    public boolean post()
+    {
+        CheckEvent event = new CheckEvent();
+        bus.post( event );
+        return event.granted;
+    }
+
+    @Benchmark
+    public boolean reflection() throws IllegalAccessException, InvocationTargetException
+    {
+        CheckEvent event = new CheckEvent();
+        for ( int i = 0; i < targets.length; i++ )
+        {
+            handlers[i].invoke( targets[i], event );
+        }
+        return event.granted;
+    }
+
+    public static class CheckEvent
+    {
+
+        public boolean granted;
+    }
+
+    public static class FirstListener
+    {
+
+        @EventHandler
+        public void onCheck(CheckEvent event)
+        {
+            event.granted = !event.granted;
+        }
+    }
+
+    public static class SecondListener
+    {
+
+        @EventHandler
+        public void onCheck(CheckEvent event)
+        {
+            event.granted = !event.granted;
+        }
+    }
+
+    public static class ThirdListener
+    {
+
+        @EventHandler
+        public void onCheck(CheckEvent event)
+        {
+            event.granted = !event.granted;
+        }
+    }
+
+    public static class FourthListener
+    {
+
+        @EventHandler
+        public void onCheck(CheckEvent event)
+        {
+            event.granted = !event.granted;
+        }
+    }
+}
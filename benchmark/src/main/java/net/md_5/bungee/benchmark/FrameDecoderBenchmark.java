@@ -0,0 +1,96 @@
+package net.md_5.bungee.benchmark;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.ChannelHandlerContext;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.md_5.bungee.protocol.DefinedPacket;
+import net.md_5.bungee.protocol.Varint21FrameDecoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Splits a single read holding several frames. Run with {@code -prof gc}, the
+ * normalised allocation rate should stay at zero bytes per operation since
+ * the frames are recycled slices of the read.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FrameDecoderBenchmark
+{
+
+    @Param(
+            {
+                "16", "128", "2048"
+            })
+    public int frameSize;
+    @Param(
+            {
+                "1", "16"
+            })
+    public int framesPerRead;
+    //
+    private final Decoder decoder = new Decoder();
+    private final List<Object> frames = new ArrayList<>();
+    private ByteBuf read;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        read = PooledByteBufAllocator.DEFAULT.directBuffer();
+        for ( int i = 0; i < framesPerRead; i++ )
+        {
+            DefinedPacket.writeVarInt( frameSize, read );
+            read.writeZero( frameSize );
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        read.release();
+    }
+
+    @Benchmark
+    public int decode() throws Exception
+    {
+        read.readerIndex( 0 );
+        decoder.decode( null, read, frames );
+
+        int decoded = frames.size();
+        for ( int i = 0; i < decoded; i++ )
+        {
+            ( (ByteBuf) frames.get( i ) ).release();
+        }
+        frames.clear();
+        return decoded;
+    }
+
+    // Calls decode directly so that only the decoder itself is measured
+    private static class Decoder extends Varint21FrameDecoder
+    {
+
+        @Override
+        public void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception
+        {
+            super.decode( ctx, in, out );
+        }
+    }
+}
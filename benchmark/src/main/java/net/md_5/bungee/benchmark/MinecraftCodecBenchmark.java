@@ -0,0 +1,112 @@
+package net.md_5.bungee.benchmark;
+
+import com.google.common.base.Preconditions;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.md_5.bungee.protocol.DefinedPacket;
+import net.md_5.bungee.protocol.MinecraftDecoder;
+import net.md_5.bungee.protocol.MinecraftEncoder;
+import net.md_5.bungee.protocol.PacketWrapper;
+import net.md_5.bungee.protocol.Protocol;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Decodes and encodes the clientbound packets of the corpus, one packet per
+ * operation. A lazy decoder leaves every packet unread, as it does for
+ * packets no handler is interested in.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MinecraftCodecBenchmark
+{
+
+    @Param(
+            {
+                "false", "true"
+            })
+    public boolean lazy;
+    //
+    private PacketCorpus corpus;
+    private final List<DefinedPacket> decoded = new ArrayList<>();
+    private EmbeddedChannel decoder;
+    private EmbeddedChannel encoder;
+    private int decodeIndex;
+    private int encodeIndex;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException
+    {
+        corpus = PacketCorpus.load();
+
+        decoder = new EmbeddedChannel( new MinecraftDecoder( Protocol.GAME, false, PacketCorpus.PROTOCOL_VERSION, lazy ) );
+        decoder.config().setAllocator( PooledByteBufAllocator.DEFAULT );
+        encoder = new EmbeddedChannel( new MinecraftEncoder( Protocol.GAME, true, PacketCorpus.PROTOCOL_VERSION ) );
+        encoder.config().setAllocator( PooledByteBufAllocator.DEFAULT );
+
+        for ( ByteBuf packet : corpus.getPackets() )
+        {
+            decoder.writeInbound( packet.retainedDuplicate() );
+            PacketWrapper wrapper = decoder.readInbound();
+            if ( wrapper.packet != null )
+            {
+                wrapper.readPacket();
+                wrapper.packet.escape();
+                decoded.add( wrapper.packet );
+            }
+            wrapper.trySingleRelease();
+        }
+        Preconditions.checkState( !decoded.isEmpty(), "Corpus has no packets known to the proxy" );
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        decoder.finishAndReleaseAll();
+        encoder.finishAndReleaseAll();
+        corpus.release();
+    }
+
+    @Benchmark
+    public DefinedPacket decode()
+    {
+        ByteBuf packet = corpus.get( decodeIndex++ % corpus.size() );
+        decoder.writeInbound( packet.retainedDuplicate() );
+
+        PacketWrapper wrapper = decoder.readInbound();
+        DefinedPacket result = wrapper.packet;
+        wrapper.trySingleRelease();
+        return result;
+    }
+
+    @Benchmark
+    public int encode()
+    {
+        encoder.writeOutbound( decoded.get( encodeIndex++ % decoded.size() ) );
+
+        ByteBuf encoded = encoder.readOutbound();
+        int length = encoded.readableBytes();
+        encoded.release();
+        return length;
+    }
+}
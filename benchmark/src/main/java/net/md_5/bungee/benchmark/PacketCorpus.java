@@ -0,0 +1,199 @@
+package net.md_5.bungee.benchmark;
+
+import com.google.common.base.Preconditions;
+import com.google.common.io.ByteStreams;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import lombok.Getter;
+import net.md_5.bungee.protocol.DefinedPacket;
+import net.md_5.bungee.protocol.ProtocolConstants;
+
+/**
+ * A list of uncompressed packets (packet ID followed by its fields) of one
+ * direction of a connection, as seen between the frame decoder and the packet
+ * decoder.
+ * <p>
+ * A recorded corpus is a file of VarInt length prefixed packets and is chosen
+ * with {@code -Dbungee.corpus=<file>}. Without one a synthetic 1.12.2
+ * clientbound corpus is generated, shaped like a busy survival server: mostly
+ * entity movement, some metadata, chat and keep alives, and a few large
+ * chunks.
+ */
+public final class PacketCorpus
+{
+
+    public static final int PROTOCOL_VERSION = ProtocolConstants.MINECRAFT_1_12_2;
+    /**
+     * Entity IDs used by the synthetic corpus for the viewing player.
+     */
+    public static final int SERVER_ENTITY_ID = 1;
+    public static final int CLIENT_ENTITY_ID = 4000;
+    //
+    @Getter
+    private final List<ByteBuf> packets;
+
+    private PacketCorpus(List<ByteBuf> packets)
+    {
+        this.packets = Collections.unmodifiableList( packets );
+    }
+
+    public static PacketCorpus load() throws IOException
+    {
+        String file = System.getProperty( "bungee.corpus" );
+        if ( file == null )
+        {
+            return synthetic();
+        }
+
+        try ( InputStream in = new FileInputStream( new File( file ) ) )
+        {
+            return read( Unpooled.wrappedBuffer( ByteStreams.toByteArray( in ) ) );
+        }
+    }
+
+    public static PacketCorpus read(ByteBuf in)
+    {
+        List<ByteBuf> packets = new ArrayList<>();
+        while ( in.isReadable() )
+        {
+            int length = DefinedPacket.readVarInt( in );
+            ByteBuf packet = PooledByteBufAllocator.DEFAULT.directBuffer( length );
+            in.readBytes( packet, length );
+            packets.add( packet );
+        }
+        Preconditions.checkArgument( !packets.isEmpty(), "Empty corpus" );
+
+        return new PacketCorpus( packets );
+    }
+
+    public static PacketCorpus synthetic()
+    {
+        Random random = new Random( 1 );
+        List<ByteBuf> packets = new ArrayList<>();
+
+        for ( int i = 0; i < 1000; i++ )
+        {
+            int entityId = ( random.nextInt( 10 ) == 0 ) ? SERVER_ENTITY_ID : 100 + random.nextInt( 2000 );
+            int kind = random.nextInt( 100 );
+
+            ByteBuf packet = PooledByteBufAllocator.DEFAULT.directBuffer();
+            if ( kind < 40 )
+            {
+                DefinedPacket.writeVarInt( 0x26, packet ); // Entity Relative Move
+                DefinedPacket.writeVarInt( entityId, packet );
+                packet.writeShort( random.nextInt( 512 ) - 256 );
+                packet.writeShort( random.nextInt( 64 ) - 32 );
+                packet.writeShort( random.nextInt( 512 ) - 256 );
+                packet.writeBoolean( true );
+            } else if ( kind < 60 )
+            {
+                DefinedPacket.writeVarInt( 0x27, packet ); // Entity Look and Relative Move
+                DefinedPacket.writeVarInt( entityId, packet );
+                packet.writeShort( random.nextInt( 512 ) - 256 );
+                packet.writeShort( random.nextInt( 64 ) - 32 );
+                packet.writeShort( random.nextInt( 512 ) - 256 );
+                packet.writeByte( random.nextInt( 256 ) );
+                packet.writeByte( random.nextInt( 256 ) );
+                packet.writeBoolean( true );
+            } else if ( kind < 72 )
+            {
+                DefinedPacket.writeVarInt( 0x36, packet ); // Entity Head Look
+                DefinedPacket.writeVarInt( entityId, packet );
+                packet.writeByte( random.nextInt( 256 ) );
+            } else if ( kind < 80 )
+            {
+                DefinedPacket.writeVarInt( 0x3E, packet ); // Entity Velocity
+                DefinedPacket.writeVarInt( entityId, packet );
+                packet.writeShort( random.nextInt( 8000 ) - 4000 );
+                packet.writeShort( random.nextInt( 8000 ) - 4000 );
+                packet.writeShort( random.nextInt( 8000 ) - 4000 );
+            } else if ( kind < 85 )
+            {
+                DefinedPacket.writeVarInt( 0x4C, packet ); // Entity Teleport
+                DefinedPacket.writeVarInt( entityId, packet );
+                packet.writeDouble( random.nextDouble() * 1000 );
+                packet.writeDouble( 64 + random.nextDouble() * 10 );
+                packet.writeDouble( random.nextDouble() * 1000 );
+                packet.writeByte( random.nextInt( 256 ) );
+                packet.writeByte( random.nextInt( 256 ) );
+                packet.writeBoolean( true );
+            } else if ( kind < 90 )
+            {
+                DefinedPacket.writeVarInt( 0x3C, packet ); // Entity Metadata
+                DefinedPacket.writeVarInt( entityId, packet );
+                packet.writeByte( 0 ); // Index
+                DefinedPacket.writeVarInt( 0, packet ); // Byte
+                packet.writeByte( random.nextInt( 256 ) );
+                packet.writeByte( 7 ); // Index
+                DefinedPacket.writeVarInt( 1, packet ); // VarInt
+                DefinedPacket.writeVarInt( ( random.nextBoolean() ) ? SERVER_ENTITY_ID : 0, packet );
+                packet.writeByte( 0xFF );
+            } else if ( kind < 93 )
+            {
+                DefinedPacket.writeVarInt( 0x32, packet ); // Destroy Entities
+                int count = 1 + random.nextInt( 8 );
+                DefinedPacket.writeVarInt( count, packet );
+                for ( int j = 0; j < count; j++ )
+                {
+                    DefinedPacket.writeVarInt( ( j == 0 ) ? entityId : 100 + random.nextInt( 2000 ), packet );
+                }
+            } else if ( kind < 97 )
+            {
+                DefinedPacket.writeVarInt( 0x0F, packet ); // Chat
+                DefinedPacket.writeString( "{\"extra\":[{\"color\":\"gray\",\"text\":\"[Player" + random.nextInt( 500 ) + "] \"},"
+                        + "{\"text\":\"message number " + i + " with some ordinary chat text\"}],\"text\":\"\"}", packet );
+                packet.writeByte( 0 );
+            } else if ( kind < 99 )
+            {
+                DefinedPacket.writeVarInt( 0x1F, packet ); // Keep Alive
+                packet.writeLong( random.nextLong() );
+            } else
+            {
+                DefinedPacket.writeVarInt( 0x20, packet ); // Chunk Data, unknown to the proxy
+                packet.writeInt( random.nextInt( 64 ) );
+                packet.writeInt( random.nextInt( 64 ) );
+                packet.writeBoolean( true );
+                DefinedPacket.writeVarInt( 0xFFFF, packet );
+                byte[] sections = new byte[ 8192 + random.nextInt( 8192 ) ];
+                for ( int j = 0; j < sections.length; j++ )
+                {
+                    // Mostly air and stone, with some noise, so it compresses like terrain
+                    sections[j] = (byte) ( ( random.nextInt( 8 ) == 0 ) ? random.nextInt( 256 ) : ( j >> 9 ) & 3 );
+                }
+                DefinedPacket.writeVarInt( sections.length, packet );
+                packet.writeBytes( sections );
+                DefinedPacket.writeVarInt( 0, packet ); // Block entities
+            }
+            packets.add( packet );
+        }
+
+        return new PacketCorpus( packets );
+    }
+
+    public int size()
+    {
+        return packets.size();
+    }
+
+    public ByteBuf get(int index)
+    {
+        return packets.get( index );
+    }
+
+    public void release()
+    {
+        for ( ByteBuf packet : packets )
+        {
+            packet.release();
+        }
+    }
+}
@@ -4,12 +4,18 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
@@ -18,9 +24,15 @@ import java.util.logging.Logger;
 public class EventBus
 {
 
-    private final Map<Class<?>, Map<Byte, Map<Object, Method[]>>> byListenerAndPriority = new HashMap<>();
+    private static final EventHandlerMethod[] NO_HANDLERS = new EventHandlerMethod[ 0 ];
+    //
+    private final Map<Class<?>, Map<Byte, Map<Object, EventHandlerMethod[]>>> byListenerAndPriority = new HashMap<>();
+    // Handlers of each posted class and its supertypes, baked when first posted
     private final Map<Class<?>, EventHandlerMethod[]> byEventBaked = new ConcurrentHashMap<>();
     private final Lock lock = new ReentrantLock();
+    // Handler -> posted class -> timing, null while timings are off
+    private volatile ConcurrentMap<EventHandlerMethod, ConcurrentMap<Class<?>, Timing>> timings;
+    private volatile HandlerExecutor asyncExecutor;
     private final Logger logger;
 
     public EventBus()
@@ -35,29 +47,233 @@ public class EventBus
 
     public void post(Object event)
     {
-        EventHandlerMethod[] handlers = byEventBaked.get( event.getClass() );
+        EventHandlerMethod[] handlers = getHandlers( event.getClass() );
 
-        if ( handlers != null )
+        if ( handlers.length != 0 )
         {
+            ConcurrentMap<EventHandlerMethod, ConcurrentMap<Class<?>, Timing>> timings = this.timings;
             for ( EventHandlerMethod method : handlers )
             {
-                try
-                {
-                    method.invoke( event );
-                } catch ( IllegalAccessException ex )
-                {
-                    throw new Error( "Method became inaccessible: " + event, ex );
-                } catch ( IllegalArgumentException ex )
+                invoke( event, method, timings );
+            }
+        }
+    }
+
+    /**
+     * Posts the event, calling handlers marked with
+     * {@link EventHandler#async()} through the executor set with
+     * {@link #setAsyncExecutor(net.md_5.bungee.event.HandlerExecutor)}. The
+     * remaining handlers and the callback are called through the given
+     * executor once they are done, so the thread posting the event never
+     * waits for them.
+     *
+     * @param event the event to post
+     * @param resume the executor to resume on, usually the one of the thread
+     * posting the event
+     * @param done called once every handler was called
+     * @return true if there was nothing to wait for and the callback was
+     * already called on this thread
+     */
+    public boolean post(Object event, Executor resume, Runnable done)
+    {
+        return dispatch( event, getHandlers( event.getClass() ), 0, resume, done );
+    }
+
+    private boolean dispatch(final Object event, final EventHandlerMethod[] handlers, int index, final Executor resume, final Runnable done)
+    {
+        final ConcurrentMap<EventHandlerMethod, ConcurrentMap<Class<?>, Timing>> timings = this.timings;
+        HandlerExecutor asyncExecutor = this.asyncExecutor;
+        for ( ; index < handlers.length; index++ )
+        {
+            if ( handlers[index].isAsync() && asyncExecutor != null )
+            {
+                final int end = getAsyncEnd( handlers, index );
+                final AtomicInteger remaining = new AtomicInteger( end - index );
+                final Runnable next = new Runnable()
                 {
-                    throw new Error( "Method rejected target/argument: " + event, ex );
-                } catch ( InvocationTargetException ex )
+                    @Override
+                    public void run()
+                    {
+                        dispatch( event, handlers, end, resume, done );
+                    }
+                };
+                for ( ; index < end; index++ )
                 {
-                    logger.log( Level.SEVERE, MessageFormat.format( "Error dispatching event {0} to listener {1}", event, method.getListener() ), ex.getCause() );
+                    final EventHandlerMethod method = handlers[index];
+                    Runnable task = new Runnable()
+                    {
+                        @Override
+                        public void run()
+                        {
+                            try
+                            {
+                                invoke( event, method, timings );
+                            } catch ( Throwable t )
+                            {
+                                logger.log( Level.SEVERE, MessageFormat.format( "Error dispatching event {0} to listener {1}", event, method.getListener() ), t );
+                            }
+                            if ( remaining.decrementAndGet() == 0 )
+                            {
+                                resume.execute( next );
+                            }
+                        }
+                    };
+                    try
+                    {
+                        asyncExecutor.execute( method, task );
+                    } catch ( RejectedExecutionException ex )
+                    {
+                        // Calling it here would block the posting thread, which usually is a network thread
+                        logger.log( Level.WARNING, MessageFormat.format( "Skipped listener {1} for event {0}, too many async handlers are waiting", event, method.getListener() ) );
+                        if ( remaining.decrementAndGet() == 0 )
+                        {
+                            resume.execute( next );
+                        }
+                    }
                 }
+                return false;
             }
+            invoke( event, handlers[index], timings );
+        }
+        done.run();
+        return true;
+    }
+
+    private static int getAsyncEnd(EventHandlerMethod[] handlers, int start)
+    {
+        int end = start + 1;
+        while ( end < handlers.length && handlers[end].isAsync() )
+        {
+            end++;
+        }
+        return end;
+    }
+
+    private void invoke(Object event, EventHandlerMethod method, ConcurrentMap<EventHandlerMethod, ConcurrentMap<Class<?>, Timing>> timings)
+    {
+        long start = ( timings != null ) ? System.nanoTime() : 0;
+        try
+        {
+            method.invoke( event );
+        } catch ( IllegalAccessException ex )
+        {
+            throw new Error( "Method became inaccessible: " + event, ex );
+        } catch ( IllegalArgumentException ex )
+        {
+            throw new Error( "Method rejected target/argument: " + event, ex );
+        } catch ( InvocationTargetException ex )
+        {
+            logger.log( Level.SEVERE, MessageFormat.format( "Error dispatching event {0} to listener {1}", event, method.getListener() ), ex.getCause() );
+        }
+        if ( timings != null )
+        {
+            getTiming( timings, method, event.getClass() ).record( System.nanoTime() - start );
         }
     }
 
+    /**
+     * Sets where handlers marked with {@link EventHandler#async()} run when
+     * events are posted with a callback. Without one they are called
+     * directly like any other.
+     *
+     * @param asyncExecutor the executor, or null
+     */
+    public void setAsyncExecutor(HandlerExecutor asyncExecutor)
+    {
+        this.asyncExecutor = asyncExecutor;
+    }
+
+    private static Timing getTiming(ConcurrentMap<EventHandlerMethod, ConcurrentMap<Class<?>, Timing>> timings, EventHandlerMethod method, Class<?> eventClass)
+    {
+        ConcurrentMap<Class<?>, Timing> byClass = timings.get( method );
+        if ( byClass == null )
+        {
+            byClass = new ConcurrentHashMap<>();
+            ConcurrentMap<Class<?>, Timing> existing = timings.putIfAbsent( method, byClass );
+            if ( existing != null )
+            {
+                byClass = existing;
+            }
+        }
+        Timing timing = byClass.get( eventClass );
+        if ( timing == null )
+        {
+            timing = new Timing();
+            Timing existing = byClass.putIfAbsent( eventClass, timing );
+            if ( existing != null )
+            {
+                timing = existing;
+            }
+        }
+        return timing;
+    }
+
+    /**
+     * Turns recording how long each handler takes on or off. Turning it on
+     * starts from scratch.
+     *
+     * @param enabled whether to record timings
+     */
+    public void setTimings(boolean enabled)
+    {
+        timings = ( enabled ) ? new ConcurrentHashMap<EventHandlerMethod, ConcurrentMap<Class<?>, Timing>>() : null;
+    }
+
+    public boolean isTimings()
+    {
+        return timings != null;
+    }
+
+    /**
+     * Gets the timings of every handler which was called since timings were
+     * turned on, by the class of the events it was called for.
+     *
+     * @return a copy of the timings, empty while they are off
+     */
+    public Map<EventHandlerMethod, Map<Class<?>, Timing>> getTimings()
+    {
+        Map<EventHandlerMethod, Map<Class<?>, Timing>> copy = new HashMap<>();
+        ConcurrentMap<EventHandlerMethod, ConcurrentMap<Class<?>, Timing>> timings = this.timings;
+        if ( timings != null )
+        {
+            for ( Map.Entry<EventHandlerMethod, ConcurrentMap<Class<?>, Timing>> entry : timings.entrySet() )
+            {
+                copy.put( entry.getKey(), new HashMap<>( entry.getValue() ) );
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Checks whether any handler would receive events of the given class.
+     * Hot paths can skip creating the event when nobody listens.
+     *
+     * @param eventClass the class of the event
+     * @return whether there are handlers for it
+     */
+    public boolean hasListeners(Class<?> eventClass)
+    {
+        return getHandlers( eventClass ).length != 0;
+    }
+
+    private EventHandlerMethod[] getHandlers(Class<?> eventClass)
+    {
+        EventHandlerMethod[] handlers = byEventBaked.get( eventClass );
+        if ( handlers == null )
+        {
+            lock.lock();
+            try
+            {
+                handlers = bakeHandlers( eventClass );
+                byEventBaked.put( eventClass, handlers );
+            } finally
+            {
+                lock.unlock();
+            }
+        }
+        return handlers;
+    }
+
     private Map<Class<?>, Map<Byte, Set<Method>>> findHandlers(Object listener)
     {
         Map<Class<?>, Map<Byte, Set<Method>>> handler = new HashMap<>();
@@ -101,7 +317,7 @@ public class EventBus
         {
             for ( Map.Entry<Class<?>, Map<Byte, Set<Method>>> e : handler.entrySet() )
             {
-                Map<Byte, Map<Object, Method[]>> prioritiesMap = byListenerAndPriority.get( e.getKey() );
+                Map<Byte, Map<Object, EventHandlerMethod[]>> prioritiesMap = byListenerAndPriority.get( e.getKey() );
                 if ( prioritiesMap == null )
                 {
                     prioritiesMap = new HashMap<>();
@@ -109,17 +325,24 @@ public class EventBus
                 }
                 for ( Map.Entry<Byte, Set<Method>> entry : e.getValue().entrySet() )
                 {
-                    Map<Object, Method[]> currentPriorityMap = prioritiesMap.get( entry.getKey() );
+                    Map<Object, EventHandlerMethod[]> currentPriorityMap = prioritiesMap.get( entry.getKey() );
                     if ( currentPriorityMap == null )
                     {
                         currentPriorityMap = new HashMap<>();
                         prioritiesMap.put( entry.getKey(), currentPriorityMap );
                     }
-                    Method[] baked = new Method[ entry.getValue().size() ];
-                    currentPriorityMap.put( listener, entry.getValue().toArray( baked ) );
+                    // Created once here, so invokers are not generated again whenever a handler for the event is added
+                    EventHandlerMethod[] baked = new EventHandlerMethod[ entry.getValue().size() ];
+                    int i = 0;
+                    for ( Method method : entry.getValue() )
+                    {
+                        baked[i++] = new EventHandlerMethod( listener, method );
+                    }
+                    currentPriorityMap.put( listener, baked );
                 }
-                bakeHandlers( e.getKey() );
             }
+            // Any baked class may be a subtype of the ones handled here
+            byEventBaked.clear();
         } finally
         {
             lock.unlock();
@@ -134,15 +357,23 @@ public class EventBus
         {
             for ( Map.Entry<Class<?>, Map<Byte, Set<Method>>> e : handler.entrySet() )
             {
-                Map<Byte, Map<Object, Method[]>> prioritiesMap = byListenerAndPriority.get( e.getKey() );
+                Map<Byte, Map<Object, EventHandlerMethod[]>> prioritiesMap = byListenerAndPriority.get( e.getKey() );
                 if ( prioritiesMap != null )
                 {
                     for ( Byte priority : e.getValue().keySet() )
                     {
-                        Map<Object, Method[]> currentPriority = prioritiesMap.get( priority );
+                        Map<Object, EventHandlerMethod[]> currentPriority = prioritiesMap.get( priority );
                         if ( currentPriority != null )
                         {
-                            currentPriority.remove( listener );
+                            EventHandlerMethod[] removed = currentPriority.remove( listener );
+                            ConcurrentMap<EventHandlerMethod, ConcurrentMap<Class<?>, Timing>> timings = this.timings;
+                            if ( removed != null && timings != null )
+                            {
+                                for ( EventHandlerMethod method : removed )
+                                {
+                                    timings.remove( method );
+                                }
+                            }
                             if ( currentPriority.isEmpty() )
                             {
                                 prioritiesMap.remove( priority );
@@ -154,8 +385,8 @@ public class EventBus
                         byListenerAndPriority.remove( e.getKey() );
                     }
                 }
-                bakeHandlers( e.getKey() );
             }
+            byEventBaked.clear();
         } finally
         {
             lock.unlock();
@@ -163,39 +394,75 @@ public class EventBus
     }
 
     /**
-     * Shouldn't be called without first locking the writeLock; intended for use
-     * only inside {@link #register(java.lang.Object) register(Object)} or
-     * {@link #unregister(java.lang.Object) unregister(Object)}.
+     * Merges the handlers of the given class and all its supertypes by
+     * priority. Shouldn't be called without first locking the lock; intended
+     * for use only inside {@link #getHandlers(java.lang.Class)}.
      */
-    private void bakeHandlers(Class<?> eventClass)
+    private EventHandlerMethod[] bakeHandlers(Class<?> eventClass)
     {
-        Map<Byte, Map<Object, Method[]>> handlersByPriority = byListenerAndPriority.get( eventClass );
-        if ( handlersByPriority != null )
+        List<Map<Byte, Map<Object, EventHandlerMethod[]>>> handlersByType = new ArrayList<>();
+        for ( Class<?> type : getTypes( eventClass ) )
         {
-            List<EventHandlerMethod> handlersList = new ArrayList<>( handlersByPriority.size() * 2 );
+            Map<Byte, Map<Object, EventHandlerMethod[]>> handlersByPriority = byListenerAndPriority.get( type );
+            if ( handlersByPriority != null )
+            {
+                handlersByType.add( handlersByPriority );
+            }
+        }
+        if ( handlersByType.isEmpty() )
+        {
+            return NO_HANDLERS;
+        }
 
-            // Either I'm really tired, or the only way we can iterate between Byte.MIN_VALUE and Byte.MAX_VALUE inclusively,
-            // with only a byte on the stack is by using a do {} while() format loop.
-            byte value = Byte.MIN_VALUE;
-            do
+        List<EventHandlerMethod> handlersList = new ArrayList<>();
+
+        // Either I'm really tired, or the only way we can iterate between Byte.MIN_VALUE and Byte.MAX_VALUE inclusively,
+        // with only a byte on the stack is by using a do {} while() format loop.
+        byte value = Byte.MIN_VALUE;
+        do
+        {
+            // Within a priority, handlers of the class itself come first
+            for ( Map<Byte, Map<Object, EventHandlerMethod[]>> handlersByPriority : handlersByType )
             {
-                Map<Object, Method[]> handlersByListener = handlersByPriority.get( value );
+                Map<Object, EventHandlerMethod[]> handlersByListener = handlersByPriority.get( value );
                 if ( handlersByListener != null )
                 {
-                    for ( Map.Entry<Object, Method[]> listenerHandlers : handlersByListener.entrySet() )
+                    for ( EventHandlerMethod[] listenerHandlers : handlersByListener.values() )
                     {
-                        for ( Method method : listenerHandlers.getValue() )
-                        {
-                            EventHandlerMethod ehm = new EventHandlerMethod( listenerHandlers.getKey(), method );
-                            handlersList.add( ehm );
-                        }
+                        Collections.addAll( handlersList, listenerHandlers );
                     }
                 }
-            } while ( value++ < Byte.MAX_VALUE );
-            byEventBaked.put( eventClass, handlersList.toArray( new EventHandlerMethod[ handlersList.size() ] ) );
-        } else
+            }
+        } while ( value++ < Byte.MAX_VALUE );
+        return handlersList.toArray( new EventHandlerMethod[ handlersList.size() ] );
+    }
+
+    /**
+     * Gets the given class, its superclasses and all interfaces they
+     * implement, the class itself first.
+     */
+    private static Set<Class<?>> getTypes(Class<?> eventClass)
+    {
+        Set<Class<?>> types = new LinkedHashSet<>();
+        for ( Class<?> type = eventClass; type != null; type = type.getSuperclass() )
+        {
+            types.add( type );
+        }
+        for ( Class<?> type : new ArrayList<>( types ) )
         {
-            byEventBaked.remove( eventClass );
+            addInterfaces( type, types );
+        }
+        return types;
+    }
+
+    private static void addInterfaces(Class<?> type, Set<Class<?>> types)
+    {
+        for ( Class<?> iface : type.getInterfaces() )
+        {
+            if ( types.add( iface ) )
+            {
+                addInterfaces( iface, types );
+            }
         }
     }
 }
@@ -23,4 +23,16 @@ public @interface EventHandler
      * </ol>
      */
     byte priority() default EventPriority.NORMAL;
+
+    /**
+     * Define whether the handler may block, for example on a database.
+     * <p>
+     * Such handlers are called on a worker thread when the event is posted
+     * with a callback, and the remaining handlers are called once they are
+     * done. Handlers next to each other by priority run at the same time.
+     * Events posted without a callback still call them directly. If too many
+     * handlers are already waiting, the handler is skipped and a warning is
+     * logged.
+     */
+    boolean async() default false;
 }
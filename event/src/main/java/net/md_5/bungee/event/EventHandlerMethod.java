@@ -1,21 +1,163 @@
 package net.md_5.bungee.event;
 
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import lombok.AllArgsConstructor;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import lombok.Getter;
 
-@AllArgsConstructor
 public class EventHandlerMethod
 {
 
+    private static final Logger LOGGER = Logger.getLogger( EventHandlerMethod.class.getName() );
+    private static final MethodType INVOKE = MethodType.methodType( void.class, Object.class );
+    // Invoker factories of each handler method, kept with the listener class so they go with its loader
+    private static final ClassValue<Map<Method, MethodHandle>> FACTORIES = new ClassValue<Map<Method, MethodHandle>>()
+    {
+        @Override
+        protected Map<Method, MethodHandle> computeValue(Class<?> type)
+        {
+            return new ConcurrentHashMap<>();
+        }
+    };
+    //
     @Getter
     private final Object listener;
     @Getter
     private final Method method;
+    @Getter
+    private final boolean async;
+    // Null if the method is only reachable through reflection
+    private final EventInvoker invoker;
+
+    public EventHandlerMethod(Object listener, Method method)
+    {
+        this.listener = listener;
+        this.method = method;
+        EventHandler annotation = method.getAnnotation( EventHandler.class );
+        this.async = annotation != null && annotation.async();
+        this.invoker = createInvoker( listener, method );
+    }
 
     public void invoke(Object event) throws IllegalAccessException, IllegalArgumentException, InvocationTargetException
     {
-        method.invoke( listener, event );
+        if ( invoker == null )
+        {
+            method.invoke( listener, event );
+            return;
+        }
+
+        try
+        {
+            invoker.invoke( event );
+        } catch ( Throwable t )
+        {
+            // Same as reflection, the bus logs the cause
+            throw new InvocationTargetException( t );
+        }
+    }
+
+    /**
+     * Creates an invoker calling the method directly, so the JIT can inline
+     * it like any other call. The invoker is a class of its own defined next
+     * to the listener, as only the loader of the listener, usually a plugin
+     * loader, can resolve its classes. Falls back to a method handle where
+     * that is not allowed, and to reflection for methods which are not public
+     * like before.
+     */
+    private static EventInvoker createInvoker(Object listener, Method method)
+    {
+        if ( !Modifier.isPublic( method.getModifiers() ) || !Modifier.isPublic( method.getDeclaringClass().getModifiers() ) )
+        {
+            return null;
+        }
+
+        boolean isStatic = Modifier.isStatic( method.getModifiers() );
+        try
+        {
+            // Listeners of one class share one invoker class, so calls through it stay monomorphic
+            Map<Method, MethodHandle> factories = FACTORIES.get( method.getDeclaringClass() );
+            MethodHandle factory = factories.get( method );
+            if ( factory == null )
+            {
+                MethodHandles.Lookup lookup = privateLookup( method.getDeclaringClass() );
+                MethodHandle target = lookup.unreflect( method );
+                MethodType captured = ( isStatic ) ? MethodType.methodType( EventInvoker.class ) : MethodType.methodType( EventInvoker.class, method.getDeclaringClass() );
+                CallSite site = LambdaMetafactory.metafactory( lookup, "invoke", captured, INVOKE, target, MethodType.methodType( void.class, method.getParameterTypes()[0] ) );
+                factory = site.getTarget();
+                factories.put( method, factory );
+            }
+            return newInvoker( factory, listener, isStatic );
+        } catch ( ReflectiveOperationException | LambdaConversionException | SecurityException ex )
+        {
+            // Newer Java versions don't give full access into other loaders
+            LOGGER.log( Level.FINE, "Calling " + method + " through a method handle", ex );
+        }
+
+        try
+        {
+            MethodHandle handle = MethodHandles.publicLookup().unreflect( method );
+            if ( !isStatic )
+            {
+                handle = handle.bindTo( listener );
+            }
+            final MethodHandle target = handle.asType( INVOKE );
+            return new EventInvoker()
+            {
+                @Override
+                public void invoke(Object event) throws Throwable
+                {
+                    target.invokeExact( event );
+                }
+            };
+        } catch ( IllegalAccessException ex )
+        {
+            return null;
+        }
+    }
+
+    private static EventInvoker newInvoker(MethodHandle factory, Object listener, boolean isStatic)
+    {
+        try
+        {
+            return ( isStatic ) ? (EventInvoker) factory.invoke() : (EventInvoker) factory.invoke( listener );
+        } catch ( RuntimeException | Error ex )
+        {
+            throw ex;
+        } catch ( Throwable t )
+        {
+            // Only constructs the invoker, which throws nothing checked
+            throw new IllegalStateException( t );
+        }
+    }
+
+    /**
+     * Gets a lookup in the given class, which LambdaMetafactory needs to
+     * define the invoker next to it.
+     */
+    private static MethodHandles.Lookup privateLookup(Class<?> type) throws ReflectiveOperationException
+    {
+        try
+        {
+            // Java 9 and later
+            Method privateLookupIn = MethodHandles.class.getMethod( "privateLookupIn", Class.class, MethodHandles.Lookup.class );
+            return (MethodHandles.Lookup) privateLookupIn.invoke( null, type, MethodHandles.lookup() );
+        } catch ( NoSuchMethodException ex )
+        {
+            // Java 8 has no public way to get one, but the constructor is there
+            Constructor<MethodHandles.Lookup> constructor = MethodHandles.Lookup.class.getDeclaredConstructor( Class.class, int.class );
+            constructor.setAccessible( true );
+            return constructor.newInstance( type, MethodHandles.Lookup.PUBLIC | MethodHandles.Lookup.PRIVATE | MethodHandles.Lookup.PROTECTED | MethodHandles.Lookup.PACKAGE );
+        }
     }
 }
@@ -0,0 +1,13 @@
+package net.md_5.bungee.event;
+
+/**
+ * Calls one handler method of one listener, generated by
+ * {@link EventHandlerMethod} so each handler is a direct call. Public only
+ * because the generated classes live next to the listeners, which may be in
+ * another package or loader.
+ */
+public interface EventInvoker
+{
+
+    void invoke(Object event) throws Throwable;
+}
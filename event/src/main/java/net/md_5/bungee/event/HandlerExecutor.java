@@ -0,0 +1,20 @@
+package net.md_5.bungee.event;
+
+/**
+ * Runs handlers marked with {@link EventHandler#async()} away from the thread
+ * which posted the event.
+ */
+public interface HandlerExecutor
+{
+
+    /**
+     * Runs the task calling the given handler at some later point, on another
+     * thread.
+     *
+     * @param handler the handler the task calls
+     * @param task the task, which never throws
+     * @throws java.util.concurrent.RejectedExecutionException if the task
+     * cannot be accepted, the bus then skips the handler
+     */
+    void execute(EventHandlerMethod handler, Runnable task);
+}
@@ -0,0 +1,180 @@
+package net.md_5.bungee.event;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Latencies of one handler or command over a rolling window. The window is
+ * split into slices which are reused once they fall out of it, so recording
+ * neither allocates nor locks. Percentiles are read from a histogram with
+ * four buckets per power of two, which makes them accurate to about 20%.
+ */
+public class Timing
+{
+
+    /**
+     * Length of the rolling window, set by the net.md_5.bungee.timings.window
+     * property in seconds.
+     */
+    public static final long WINDOW = TimeUnit.SECONDS.toNanos( Integer.getInteger( "net.md_5.bungee.timings.window", 60 ) );
+    private static final int SLICES = 6;
+    private static final long SLICE = WINDOW / SLICES;
+    // Up to 2^40 ns, about 18 minutes
+    private static final int BUCKETS = 160;
+    //
+    private final Slice[] slices = new Slice[ SLICES ];
+
+    public Timing()
+    {
+        for ( int i = 0; i < slices.length; i++ )
+        {
+            slices[i] = new Slice();
+        }
+    }
+
+    /**
+     * Records one call.
+     *
+     * @param nanos how long the call took
+     */
+    public void record(long nanos)
+    {
+        long epoch = System.nanoTime() / SLICE;
+        Slice slice = slices[(int) Math.floorMod( epoch, SLICES )];
+        if ( slice.epoch < epoch )
+        {
+            slice.reset( epoch );
+        }
+
+        slice.count.incrementAndGet();
+        slice.total.addAndGet( nanos );
+        long max;
+        while ( nanos > ( max = slice.max.get() ) && !slice.max.compareAndSet( max, nanos ) )
+        {
+        }
+        slice.buckets.incrementAndGet( bucket( nanos ) );
+    }
+
+    /**
+     * Sums the calls within the window.
+     *
+     * @return the calls within the window
+     */
+    public Snapshot snapshot()
+    {
+        long epoch = System.nanoTime() / SLICE;
+        long count = 0;
+        long total = 0;
+        long max = 0;
+        long[] buckets = new long[ BUCKETS ];
+        for ( Slice slice : slices )
+        {
+            if ( epoch - slice.epoch >= SLICES )
+            {
+                continue;
+            }
+            count += slice.count.get();
+            total += slice.total.get();
+            max = Math.max( max, slice.max.get() );
+            for ( int i = 0; i < BUCKETS; i++ )
+            {
+                buckets[i] += slice.buckets.get( i );
+            }
+        }
+        return new Snapshot( count, total, max, buckets );
+    }
+
+    private static int bucket(long nanos)
+    {
+        if ( nanos < 4 )
+        {
+            return (int) Math.max( nanos, 0 );
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros( nanos );
+        int bucket = 4 * ( exponent - 1 ) + (int) ( ( nanos >>> ( exponent - 2 ) ) & 3 );
+        return Math.min( bucket, BUCKETS - 1 );
+    }
+
+    private static long upperBound(int bucket)
+    {
+        if ( bucket < 4 )
+        {
+            return bucket;
+        }
+        int exponent = bucket / 4 + 1;
+        return ( (long) ( 5 + bucket % 4 ) << ( exponent - 2 ) ) - 1;
+    }
+
+    private static final class Slice
+    {
+
+        // Far enough back to be outside any window
+        private volatile long epoch = Long.MIN_VALUE / 2;
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong total = new AtomicLong();
+        private final AtomicLong max = new AtomicLong();
+        private final AtomicLongArray buckets = new AtomicLongArray( BUCKETS );
+
+        private synchronized void reset(long epoch)
+        {
+            if ( this.epoch >= epoch )
+            {
+                return;
+            }
+            count.set( 0 );
+            total.set( 0 );
+            max.set( 0 );
+            for ( int i = 0; i < BUCKETS; i++ )
+            {
+                buckets.set( i, 0 );
+            }
+            this.epoch = epoch;
+        }
+    }
+
+    /**
+     * The calls of a timing within its window.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static final class Snapshot
+    {
+
+        private final long count;
+        /**
+         * Sum of all calls in ns.
+         */
+        private final long total;
+        /**
+         * Longest call in ns.
+         */
+        private final long max;
+        @Getter(AccessLevel.NONE)
+        private final long[] buckets;
+
+        /**
+         * Gets the time in ns the given share of calls took at most.
+         *
+         * @param percentile the share of calls, between 0 and 1
+         * @return the time, 0 if there were no calls
+         */
+        public long percentile(double percentile)
+        {
+            long rank = (long) Math.ceil( percentile * count );
+            long seen = 0;
+            for ( int i = 0; i < buckets.length; i++ )
+            {
+                seen += buckets[i];
+                if ( seen >= rank && seen > 0 )
+                {
+                    return Math.min( upperBound( i ), max );
+                }
+            }
+            return max;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package net.md_5.bungee.event;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AsyncHandlerTest
+{
+
+    private final EventBus bus = new EventBus();
+    private final ExecutorService workers = Executors.newFixedThreadPool( 2 );
+    private final ExecutorService loop = Executors.newSingleThreadExecutor();
+    private final List<String> calls = Collections.synchronizedList( new ArrayList<String>() );
+    private volatile Thread loopThread;
+
+    @After
+    public void shutdown()
+    {
+        workers.shutdownNow();
+        loop.shutdownNow();
+    }
+
+    @Test
+    public void testAsync() throws InterruptedException
+    {
+        bus.register( this );
+        bus.setAsyncExecutor( new HandlerExecutor()
+        {
+            @Override
+            public void execute(EventHandlerMethod handler, Runnable task)
+            {
+                workers.execute( task );
+            }
+        } );
+
+        final CountDownLatch latch = new CountDownLatch( 1 );
+        loop.execute( new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                loopThread = Thread.currentThread();
+                Assert.assertFalse( bus.post( new FirstEvent(), loop, new Runnable()
+                {
+                    @Override
+                    public void run()
+                    {
+                        calls.add( "done" );
+                        Assert.assertSame( loopThread, Thread.currentThread() );
+                        latch.countDown();
+                    }
+                } ) );
+                calls.add( "returned" );
+            }
+        } );
+
+        Assert.assertTrue( latch.await( 5, TimeUnit.SECONDS ) );
+        Assert.assertEquals( "returned", calls.get( 0 ) );
+        Assert.assertTrue( calls.subList( 1, 3 ).containsAll( Arrays.asList( "async1", "async2" ) ) );
+        Assert.assertEquals( Arrays.asList( "high", "done" ), calls.subList( 3, 5 ) );
+    }
+
+    @Test
+    public void testDirect()
+    {
+        bus.register( this );
+        final Executor fail = new Executor()
+        {
+            @Override
+            public void execute(Runnable command)
+            {
+                Assert.fail();
+            }
+        };
+        // Without an async executor everything runs on the posting thread
+        Assert.assertTrue( bus.post( new FirstEvent(), fail, new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                calls.add( "done" );
+            }
+        } ) );
+        Assert.assertEquals( 4, calls.size() );
+        Assert.assertEquals( "done", calls.get( 3 ) );
+
+        calls.clear();
+        bus.post( new FirstEvent() );
+        Assert.assertEquals( 3, calls.size() );
+    }
+
+    @Test
+    public void testRejected()
+    {
+        bus.register( this );
+        bus.setAsyncExecutor( new HandlerExecutor()
+        {
+            @Override
+            public void execute(EventHandlerMethod handler, Runnable task)
+            {
+                throw new RejectedExecutionException();
+            }
+        } );
+
+        // Rejected handlers are skipped rather than blocking the posting thread
+        bus.post( new FirstEvent(), new Executor()
+        {
+            @Override
+            public void execute(Runnable command)
+            {
+                command.run();
+            }
+        }, new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                calls.add( "done" );
+            }
+        } );
+        Assert.assertEquals( Arrays.asList( "high", "done" ), calls );
+    }
+
+    @EventHandler(async = true)
+    public void onFirst(FirstEvent event) throws InterruptedException
+    {
+        Assert.assertNotSame( loopThread, Thread.currentThread() );
+        Thread.sleep( 50 );
+        calls.add( "async1" );
+    }
+
+    @EventHandler(async = true)
+    public void onSecond(FirstEvent event)
+    {
+        calls.add( "async2" );
+    }
+
+    @EventHandler(priority = EventPriority.HIGH)
+    public void onHigh(FirstEvent event)
+    {
+        if ( loopThread != null )
+        {
+            Assert.assertSame( loopThread, Thread.currentThread() );
+        }
+        calls.add( "high" );
+    }
+
+    public static class FirstEvent
+    {
+    }
+}
@@ -0,0 +1,130 @@
+package net.md_5.bungee.event;
+
+import com.google.common.io.ByteStreams;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class EventHandlerMethodTest
+{
+
+    @Test
+    public void testGenerated() throws Exception
+    {
+        TestEvent event = new TestEvent();
+        EventHandlerMethod method = new EventHandlerMethod( new TestListener(), TestListener.class.getMethod( "onEvent", TestEvent.class ) );
+        method.invoke( event );
+
+        Assert.assertEquals( 1, event.calls );
+        Assert.assertTrue( "Invoker should be generated", invokerClass( method ).contains( "$$Lambda" ) );
+    }
+
+    @Test
+    public void testStatic() throws Exception
+    {
+        TestEvent event = new TestEvent();
+        EventHandlerMethod method = new EventHandlerMethod( null, TestListener.class.getMethod( "onEventStatic", TestEvent.class ) );
+        method.invoke( event );
+
+        Assert.assertEquals( 1, event.calls );
+    }
+
+    @Test
+    public void testException() throws Exception
+    {
+        EventHandlerMethod method = new EventHandlerMethod( new TestListener(), TestListener.class.getMethod( "onEvent", TestEvent.class ) );
+        try
+        {
+            method.invoke( null );
+            Assert.fail( "Exception should be thrown" );
+        } catch ( InvocationTargetException ex )
+        {
+            Assert.assertTrue( ex.getCause() instanceof NullPointerException );
+        }
+    }
+
+    @Test
+    public void testOtherLoader() throws Exception
+    {
+        // Like a plugin, the listener can't be resolved from the loader of the bus
+        Class<?> listenerClass = new IsolatingClassLoader( TestListener.class.getName() ).loadClass( TestListener.class.getName() );
+        Assert.assertNotSame( TestListener.class, listenerClass );
+
+        EventBus bus = new EventBus();
+        bus.register( listenerClass.newInstance() );
+        TestEvent event = new TestEvent();
+        bus.post( event );
+
+        Assert.assertEquals( 2, event.calls );
+    }
+
+    private static String invokerClass(EventHandlerMethod method) throws ReflectiveOperationException
+    {
+        Field field = EventHandlerMethod.class.getDeclaredField( "invoker" );
+        field.setAccessible( true );
+        return field.get( method ).getClass().getName();
+    }
+
+    public static class TestEvent
+    {
+
+        public int calls;
+    }
+
+    public static class TestListener
+    {
+
+        @EventHandler
+        public void onEvent(TestEvent event)
+        {
+            event.calls++;
+        }
+
+        @EventHandler
+        public static void onEventStatic(TestEvent event)
+        {
+            event.calls++;
+        }
+    }
+
+    private static class IsolatingClassLoader extends ClassLoader
+    {
+
+        private final String isolated;
+
+        private IsolatingClassLoader(String isolated)
+        {
+            super( IsolatingClassLoader.class.getClassLoader() );
+            this.isolated = isolated;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException
+        {
+            if ( !name.equals( isolated ) )
+            {
+                return super.loadClass( name, resolve );
+            }
+
+            synchronized ( getClassLoadingLock( name ) )
+            {
+                Class<?> loaded = findLoadedClass( name );
+                if ( loaded != null )
+                {
+                    return loaded;
+                }
+                try ( InputStream in = getParent().getResourceAsStream( name.replace( '.', '/' ) + ".class" ) )
+                {
+                    byte[] bytes = ByteStreams.toByteArray( in );
+                    return defineClass( name, bytes, 0, bytes.length );
+                } catch ( IOException ex )
+                {
+                    throw new ClassNotFoundException( name, ex );
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package net.md_5.bungee.event;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SupertypeListenerTest
+{
+
+    private final EventBus bus = new EventBus();
+    private final List<String> calls = new ArrayList<>();
+
+    @Test
+    public void testSupertypes()
+    {
+        bus.register( this );
+        bus.post( new ChildEvent() );
+        Assert.assertEquals( Arrays.asList( "interface", "child", "parent" ), calls );
+
+        calls.clear();
+        bus.post( new ParentEvent() );
+        Assert.assertEquals( Arrays.asList( "parent" ), calls );
+    }
+
+    @Test
+    public void testRebaked()
+    {
+        Assert.assertFalse( bus.hasListeners( ChildEvent.class ) );
+
+        Object late = new Object()
+        {
+            @EventHandler
+            public void onParent(ParentEvent event)
+            {
+                calls.add( "late" );
+            }
+        };
+        bus.register( late );
+        Assert.assertTrue( "Subclass should see new supertype handlers", bus.hasListeners( ChildEvent.class ) );
+
+        bus.unregister( late );
+        Assert.assertFalse( bus.hasListeners( ChildEvent.class ) );
+    }
+
+    @EventHandler(priority = EventPriority.LOW)
+    public void onInterface(MarkerEvent event)
+    {
+        calls.add( "interface" );
+    }
+
+    @EventHandler
+    public void onChild(ChildEvent event)
+    {
+        calls.add( "child" );
+    }
+
+    @EventHandler
+    public void onParent(ParentEvent event)
+    {
+        calls.add( "parent" );
+    }
+
+    public interface MarkerEvent
+    {
+    }
+
+    public static class ParentEvent
+    {
+    }
+
+    public static class ChildEvent extends ParentEvent implements MarkerEvent
+    {
+    }
+}
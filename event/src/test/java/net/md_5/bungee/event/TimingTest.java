@@ -0,0 +1,61 @@
+package net.md_5.bungee.event;
+
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TimingTest
+{
+
+    @Test
+    public void testSnapshot()
+    {
+        Timing timing = new Timing();
+        for ( int i = 1; i <= 100; i++ )
+        {
+            timing.record( i * 1000 );
+        }
+
+        Timing.Snapshot snapshot = timing.snapshot();
+        Assert.assertEquals( 100, snapshot.getCount() );
+        Assert.assertEquals( 5050000, snapshot.getTotal() );
+        Assert.assertEquals( 100000, snapshot.getMax() );
+        // Buckets are a quarter of a power of two wide
+        Assert.assertEquals( 50000, snapshot.percentile( 0.5 ), 50000 * 0.25 );
+        Assert.assertEquals( 95000, snapshot.percentile( 0.95 ), 95000 * 0.25 );
+        Assert.assertEquals( 100000, snapshot.percentile( 1 ) );
+    }
+
+    @Test
+    public void testEmpty()
+    {
+        Timing.Snapshot snapshot = new Timing().snapshot();
+        Assert.assertEquals( 0, snapshot.getCount() );
+        Assert.assertEquals( 0, snapshot.percentile( 0.99 ) );
+    }
+
+    @Test
+    public void testEventBus()
+    {
+        EventBus bus = new EventBus();
+        bus.register( this );
+        bus.post( new Object() );
+        Assert.assertTrue( bus.getTimings().isEmpty() );
+
+        bus.setTimings( true );
+        bus.post( new Object() );
+        bus.post( new Object() );
+        Map<EventHandlerMethod, Map<Class<?>, Timing>> timings = bus.getTimings();
+        Assert.assertEquals( 1, timings.size() );
+        Timing timing = timings.values().iterator().next().get( Object.class );
+        Assert.assertEquals( 2, timing.snapshot().getCount() );
+
+        bus.unregister( this );
+        Assert.assertTrue( bus.getTimings().isEmpty() );
+    }
+
+    @EventHandler
+    public void onEvent(Object event)
+    {
+    }
+}
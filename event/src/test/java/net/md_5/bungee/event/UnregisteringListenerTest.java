@@ -16,6 +16,16 @@ public class UnregisteringListenerTest
         bus.post( new TestEvent() );
     }
 
+    @Test
+    public void testHasListeners()
+    {
+        Assert.assertFalse( bus.hasListeners( TestEvent.class ) );
+        bus.register( this );
+        Assert.assertTrue( bus.hasListeners( TestEvent.class ) );
+        bus.unregister( this );
+        Assert.assertFalse( bus.hasListeners( TestEvent.class ) );
+    }
+
     @EventHandler
     public void onEvent(TestEvent evt)
     {
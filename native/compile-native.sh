@@ -1,6 +1,13 @@
 #!/bin/sh
 
-CXX="g++ -shared -fPIC -O3 -Wall -Werror -I$JAVA_HOME/include/ -I$JAVA_HOME/include/linux/"
+# Usage: compile-native.sh [platform [compiler]], for example
+#   compile-native.sh linux-aarch64 aarch64-linux-gnu-g++
+#   compile-native.sh linux-musl-x86_64 x86_64-linux-musl-g++
+# NativeCode only loads the platforms listed in NativeCode.detectPlatform(),
+# add new ones there once their libraries are bundled.
+PLATFORM=${1:-linux-x86_64}
+CXX="${2:-g++} -shared -fPIC -O3 -Wall -Werror -I$JAVA_HOME/include/ -I$JAVA_HOME/include/linux/"
 
-$CXX src/main/c/NativeCipherImpl.cpp -o src/main/resources/native-cipher.so -lcrypto
-$CXX src/main/c/NativeCompressImpl.cpp -o src/main/resources/native-compress.so -lz
+$CXX src/main/c/NativeCipherImpl.cpp -o src/main/resources/native-cipher-$PLATFORM.so -lcrypto
+$CXX src/main/c/NativeCompressImpl.cpp -o src/main/resources/native-compress-$PLATFORM.so -lz
+$CXX src/main/c/NativeDeflateImpl.cpp -o src/main/resources/native-libdeflate-$PLATFORM.so -ldeflate
@@ -4,14 +4,80 @@
 #include <mbedtls/aes.h>
 #include "net_md_5_bungee_jni_cipher_NativeCipherImpl.h"
 
+#if defined(__x86_64__)
+#include <cpuid.h>
+#include <immintrin.h>
+#define AESNI_SUPPORTED
+#endif
+
 typedef unsigned char byte;
 
 struct crypto_context {
     int mode;
     mbedtls_aes_context cipher;
     byte *key;
+#ifdef AESNI_SUPPORTED
+    bool aesni;
+    __m128i rounds[11];
+#endif
 };
 
+#ifdef AESNI_SUPPORTED
+static bool hasAesni() {
+    unsigned int eax, ebx, ecx, edx;
+    // AES-NI and SSE4.1 for the byte insert
+    return __get_cpuid(1, &eax, &ebx, &ecx, &edx) && (ecx & bit_AES) && (ecx & bit_SSE4_1);
+}
+
+__attribute__((target("aes")))
+static __m128i expandKey(__m128i key, __m128i assist) {
+    assist = _mm_shuffle_epi32(assist, 0xFF);
+    key = _mm_xor_si128(key, _mm_slli_si128(key, 4));
+    key = _mm_xor_si128(key, _mm_slli_si128(key, 4));
+    key = _mm_xor_si128(key, _mm_slli_si128(key, 4));
+    return _mm_xor_si128(key, assist);
+}
+
+__attribute__((target("aes")))
+static void aesniSetKey(__m128i *rounds, const byte *key) {
+    rounds[0] = _mm_loadu_si128((const __m128i*) key);
+    rounds[1] = expandKey(rounds[0], _mm_aeskeygenassist_si128(rounds[0], 0x01));
+    rounds[2] = expandKey(rounds[1], _mm_aeskeygenassist_si128(rounds[1], 0x02));
+    rounds[3] = expandKey(rounds[2], _mm_aeskeygenassist_si128(rounds[2], 0x04));
+    rounds[4] = expandKey(rounds[3], _mm_aeskeygenassist_si128(rounds[3], 0x08));
+    rounds[5] = expandKey(rounds[4], _mm_aeskeygenassist_si128(rounds[4], 0x10));
+    rounds[6] = expandKey(rounds[5], _mm_aeskeygenassist_si128(rounds[5], 0x20));
+    rounds[7] = expandKey(rounds[6], _mm_aeskeygenassist_si128(rounds[6], 0x40));
+    rounds[8] = expandKey(rounds[7], _mm_aeskeygenassist_si128(rounds[7], 0x80));
+    rounds[9] = expandKey(rounds[8], _mm_aeskeygenassist_si128(rounds[8], 0x1B));
+    rounds[10] = expandKey(rounds[9], _mm_aeskeygenassist_si128(rounds[9], 0x36));
+}
+
+// CFB8 needs one block encryption per byte, the shift register stays in a register
+__attribute__((target("aes,sse4.1")))
+static void aesniCfb8(const __m128i *rounds, int mode, byte *iv, size_t length, const byte *in, byte *out) {
+    __m128i shift = _mm_loadu_si128((const __m128i*) iv);
+
+    for (size_t i = 0; i < length; i++) {
+        __m128i block = _mm_xor_si128(shift, rounds[0]);
+        for (int round = 1; round < 10; round++) {
+            block = _mm_aesenc_si128(block, rounds[round]);
+        }
+        block = _mm_aesenclast_si128(block, rounds[10]);
+
+        // Read before writing, in and out may be the same
+        byte input = in[i];
+        byte output = (byte) _mm_cvtsi128_si32(block) ^ input;
+        out[i] = output;
+
+        shift = _mm_srli_si128(shift, 1);
+        shift = _mm_insert_epi8(shift, (mode == MBEDTLS_AES_ENCRYPT) ? output : input, 15);
+    }
+
+    _mm_storeu_si128((__m128i*) iv, shift);
+}
+#endif
+
 jlong JNICALL Java_net_md_15_bungee_jni_cipher_NativeCipherImpl_init(JNIEnv* env, jobject obj, jboolean forEncryption, jbyteArray key) {
     jsize keyLen = env->GetArrayLength(key);
     jbyte *keyBytes = env->GetByteArrayElements(key, NULL);
@@ -21,6 +87,14 @@ jlong JNICALL Java_net_md_15_bungee_jni_cipher_NativeCipherImpl_init(JNIEnv* env
 
     mbedtls_aes_setkey_enc(&crypto->cipher, (byte*) keyBytes, keyLen * 8);
 
+#ifdef AESNI_SUPPORTED
+    // The Minecraft protocol only uses 128 bit keys
+    crypto->aesni = keyLen == 16 && hasAesni();
+    if (crypto->aesni) {
+        aesniSetKey(crypto->rounds, (byte*) keyBytes);
+    }
+#endif
+
     crypto->key = (byte*) malloc(keyLen);
     memcpy(crypto->key, keyBytes, keyLen);
 
@@ -41,5 +115,12 @@ void Java_net_md_15_bungee_jni_cipher_NativeCipherImpl_free(JNIEnv* env, jobject
 void Java_net_md_15_bungee_jni_cipher_NativeCipherImpl_cipher(JNIEnv* env, jobject obj, jlong ctx, jlong in, jlong out, jint length) {
     crypto_context *crypto = (crypto_context*) ctx;
 
+#ifdef AESNI_SUPPORTED
+    if (crypto->aesni) {
+        aesniCfb8(crypto->rounds, crypto->mode, crypto->key, length, (byte*) in, (byte*) out);
+        return;
+    }
+#endif
+
     mbedtls_aes_crypt_cfb8(&crypto->cipher, crypto->mode, length, crypto->key, (byte*) in, (byte*) out);
 }
@@ -0,0 +1,45 @@
+/* DO NOT EDIT THIS FILE - it is machine generated */
+#include <jni.h>
+/* Header for class net_md_5_bungee_jni_zlib_NativeDeflateImpl */
+
+#ifndef _Included_net_md_5_bungee_jni_zlib_NativeDeflateImpl
+#define _Included_net_md_5_bungee_jni_zlib_NativeDeflateImpl
+#ifdef __cplusplus
+extern "C" {
+#endif
+/*
+ * Class:     net_md_5_bungee_jni_zlib_NativeDeflateImpl
+ * Method:    init
+ * Signature: (ZI)J
+ */
+JNIEXPORT jlong JNICALL Java_net_md_15_bungee_jni_zlib_NativeDeflateImpl_init
+  (JNIEnv *, jobject, jboolean, jint);
+
+/*
+ * Class:     net_md_5_bungee_jni_zlib_NativeDeflateImpl
+ * Method:    free
+ * Signature: (JZ)V
+ */
+JNIEXPORT void JNICALL Java_net_md_15_bungee_jni_zlib_NativeDeflateImpl_free
+  (JNIEnv *, jobject, jlong, jboolean);
+
+/*
+ * Class:     net_md_5_bungee_jni_zlib_NativeDeflateImpl
+ * Method:    compressBound
+ * Signature: (JI)I
+ */
+JNIEXPORT jint JNICALL Java_net_md_15_bungee_jni_zlib_NativeDeflateImpl_compressBound
+  (JNIEnv *, jobject, jlong, jint);
+
+/*
+ * Class:     net_md_5_bungee_jni_zlib_NativeDeflateImpl
+ * Method:    process
+ * Signature: (JJIJIZ)I
+ */
+JNIEXPORT jint JNICALL Java_net_md_15_bungee_jni_zlib_NativeDeflateImpl_process
+  (JNIEnv *, jobject, jlong, jlong, jint, jlong, jint, jboolean);
+
+#ifdef __cplusplus
+}
+#endif
+#endif
@@ -1,31 +1,73 @@
 package net.md_5.bungee.jni;
 
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
 import com.google.common.io.ByteStreams;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.util.Set;
+import lombok.Getter;
 import net.md_5.bungee.jni.cipher.BungeeCipher;
 
 public final class NativeCode<T>
 {
 
+    private static final String PLATFORM = detectPlatform();
+    //
     private final String name;
     private final Class<T> javaImpl;
     private final Class<T> nativeImpl;
+    private final NativeCode<T> fallback;
     //
+    @Getter
     private boolean loaded;
+    /**
+     * Where the library was loaded from, either the file or
+     * java.library.path. Null while it is not loaded.
+     */
+    @Getter
+    private String source;
 
     public NativeCode(String name, Class<T> javaImpl, Class<T> nativeImpl)
     {
         this.name = name;
         this.javaImpl = javaImpl;
         this.nativeImpl = nativeImpl;
+        this.fallback = null;
+    }
+
+    /**
+     * Native code which is preferred over other native code, for example a
+     * faster library which is not available everywhere.
+     *
+     * @param name the name of the library
+     * @param fallback used if this library can't be loaded
+     * @param nativeImpl the implementation using the library
+     */
+    public NativeCode(String name, NativeCode<T> fallback, Class<T> nativeImpl)
+    {
+        this.name = name;
+        this.javaImpl = fallback.javaImpl;
+        this.nativeImpl = nativeImpl;
+        this.fallback = fallback;
     }
 
     public T newInstance()
     {
+        if ( !loaded && fallback != null )
+        {
+            return fallback.newInstance();
+        }
+
         try
         {
             return ( loaded ) ? nativeImpl.newInstance() : javaImpl.newInstance();
@@ -35,7 +77,51 @@ public final class NativeCode<T>
         }
     }
 
+    /**
+     * Gets the implementation {@link #newInstance()} creates, following the
+     * fallback if this library is not loaded.
+     *
+     * @return the implementation in use
+     */
+    public Class<T> getImplementation()
+    {
+        if ( !loaded && fallback != null )
+        {
+            return fallback.getImplementation();
+        }
+        return ( loaded ) ? nativeImpl : javaImpl;
+    }
+
+    /**
+     * Describes the implementation in use and where it was loaded from, for
+     * logging.
+     *
+     * @return the description
+     */
+    public String describe()
+    {
+        if ( !loaded && fallback != null )
+        {
+            return fallback.describe();
+        }
+        return ( loaded ) ? name + " (" + nativeImpl.getSimpleName() + ") from " + source : "Java (" + javaImpl.getSimpleName() + ")";
+    }
+
+    /**
+     * Loads this library, or else the fallback.
+     *
+     * @return whether any native code was loaded
+     */
     public boolean load()
+    {
+        if ( !loadThis() && fallback != null )
+        {
+            return fallback.load();
+        }
+        return loaded;
+    }
+
+    private boolean loadThis()
     {
         if ( !loaded && isSupported() )
         {
@@ -45,29 +131,28 @@ public final class NativeCode<T>
             {
                 System.loadLibrary( fullName );
                 loaded = true;
+                source = "java.library.path";
             } catch ( Throwable t )
             {
             }
 
             if ( !loaded )
             {
-                try ( InputStream soFile = BungeeCipher.class.getClassLoader().getResourceAsStream( name + ".so" ) )
+                try ( InputStream soFile = openLibrary() )
                 {
-                    // Else we will create and copy it to a temp file
-                    File temp = File.createTempFile( fullName, ".so" );
-                    // Don't leave cruft on filesystem
-                    temp.deleteOnExit();
-
-                    try ( OutputStream outputStream = new FileOutputStream( temp ) )
+                    if ( soFile == null )
                     {
-                        ByteStreams.copy( soFile, outputStream );
+                        System.out.println( "No native " + name + " bundled for " + PLATFORM );
+                        return false;
                     }
 
-                    System.load( temp.getPath() );
+                    File file = extract( fullName, ByteStreams.toByteArray( soFile ) );
+                    System.load( file.getPath() );
                     loaded = true;
+                    source = file.getPath();
                 } catch ( IOException ex )
                 {
-                    // Can't write to tmp?
+                    System.out.println( "Could not extract native " + name + ": " + ex );
                 } catch ( UnsatisfiedLinkError ex )
                 {
                     System.out.println( "Could not load native library: " + ex.getMessage() );
@@ -78,8 +163,149 @@ public final class NativeCode<T>
         return loaded;
     }
 
+    /**
+     * Gets a file containing the library. Extracted copies are kept in the
+     * cache directory under the hash of their contents, so a restart reuses
+     * them rather than writing the library again.
+     */
+    private static File extract(String fullName, byte[] library) throws IOException
+    {
+        File cacheDir = getCacheDirectory();
+        try
+        {
+            File cached = extractCached( cacheDir.toPath(), fullName, library );
+            if ( cached != null )
+            {
+                return cached;
+            }
+            System.out.println( "Not caching native library in " + cacheDir + ", it must be owned by this user and not writable by others" );
+        } catch ( IOException | UnsupportedOperationException ex )
+        {
+            System.out.println( "Could not cache native library in " + cacheDir + ": " + ex + ", extracting it to a temporary file" );
+        }
+
+        File temp = File.createTempFile( fullName, ".so" );
+        // Don't leave cruft on filesystem
+        temp.deleteOnExit();
+        Files.write( temp.toPath(), library );
+        return temp;
+    }
+
+    /**
+     * Gets the cached copy of the library, writing it first if needed. Other
+     * users must not be able to swap the library between checking its hash
+     * and loading it, so the directory and the copy have to be private.
+     *
+     * @return the copy, null if the directory is not private
+     */
+    private static File extractCached(Path cacheDir, String fullName, byte[] library) throws IOException
+    {
+        if ( !Files.exists( cacheDir, LinkOption.NOFOLLOW_LINKS ) )
+        {
+            Files.createDirectories( cacheDir, PosixFilePermissions.asFileAttribute( PosixFilePermissions.fromString( "rwx------" ) ) );
+        }
+        UserPrincipal user = cacheDir.getFileSystem().getUserPrincipalLookupService().lookupPrincipalByName( System.getProperty( "user.name" ) );
+        if ( !isPrivate( cacheDir, user ) )
+        {
+            return null;
+        }
+
+        HashCode hash = Hashing.sha256().hashBytes( library );
+        Path cached = cacheDir.resolve( fullName + "-" + hash.toString().substring( 0, 16 ) + ".so" );
+
+        // Only trust a cached copy if it is intact
+        if ( Files.exists( cached, LinkOption.NOFOLLOW_LINKS ) && isPrivate( cached, user ) && Files.size( cached ) == library.length
+                && Hashing.sha256().hashBytes( Files.readAllBytes( cached ) ).equals( hash ) )
+        {
+            return cached.toFile();
+        }
+
+        // Written next to its final name first, other processes may be extracting it too
+        Path temp = Files.createTempFile( cacheDir, fullName, ".tmp" );
+        try
+        {
+            Files.write( temp, library );
+            Files.move( temp, cached, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+        } finally
+        {
+            Files.deleteIfExists( temp );
+        }
+        return cached.toFile();
+    }
+
+    private static boolean isPrivate(Path path, UserPrincipal user) throws IOException
+    {
+        PosixFileAttributes attributes = Files.readAttributes( path, PosixFileAttributes.class, LinkOption.NOFOLLOW_LINKS );
+        Set<PosixFilePermission> permissions = attributes.permissions();
+        return !attributes.isSymbolicLink() && attributes.owner().equals( user )
+                && !permissions.contains( PosixFilePermission.GROUP_WRITE ) && !permissions.contains( PosixFilePermission.OTHERS_WRITE );
+    }
+
+    /**
+     * Gets the directory extracted libraries are kept in, the native folder
+     * of the working directory unless set by the net.md_5.bungee.native.cache
+     * property. It must be owned by the user running the proxy and not be
+     * writable by anyone else, or libraries are extracted to temporary files
+     * instead. On read only file systems this should point at a writable
+     * volume, or the libraries should be put on java.library.path instead.
+     *
+     * @return the cache directory
+     */
+    public static File getCacheDirectory()
+    {
+        return new File( System.getProperty( "net.md_5.bungee.native.cache", "native" ) );
+    }
+
+    private InputStream openLibrary()
+    {
+        ClassLoader loader = BungeeCipher.class.getClassLoader();
+        InputStream soFile = loader.getResourceAsStream( name + "-" + PLATFORM + ".so" );
+        if ( soFile == null && PLATFORM.equals( "linux-x86_64" ) )
+        {
+            // Built before libraries were named by platform
+            soFile = loader.getResourceAsStream( name + ".so" );
+        }
+        return soFile;
+    }
+
     public static boolean isSupported()
     {
-        return "Linux".equals( System.getProperty( "os.name" ) ) && "amd64".equals( System.getProperty( "os.arch" ) );
+        return PLATFORM != null;
+    }
+
+    /**
+     * Gets the platform native code is loaded for, currently only
+     * linux-x86_64.
+     *
+     * @return the platform, null if native code is not built for this one
+     */
+    public static String getPlatform()
+    {
+        return PLATFORM;
+    }
+
+    private static String detectPlatform()
+    {
+        if ( !"Linux".equals( System.getProperty( "os.name" ) ) )
+        {
+            return null;
+        }
+
+        switch ( System.getProperty( "os.arch" ) )
+        {
+            case "amd64":
+            case "x86_64":
+                break;
+            // Add architectures here once their libraries are bundled
+            default:
+                return null;
+        }
+
+        // musl based distributions such as Alpine can't load the glibc libraries, none are bundled for musl yet
+        if ( new File( "/lib/ld-musl-x86_64.so.1" ).exists() )
+        {
+            return null;
+        }
+        return "linux-x86_64";
     }
 }
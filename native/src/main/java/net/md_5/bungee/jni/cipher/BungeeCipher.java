@@ -17,5 +17,12 @@ public interface BungeeCipher
 
     void cipher(ByteBuf in, ByteBuf out) throws GeneralSecurityException;
 
+    /**
+     * Ciphers the readable bytes of the buffer in place, which CFB8 allows as
+     * it outputs exactly as many bytes as it reads. The indexes are left as
+     * they are.
+     */
+    void cipherInPlace(ByteBuf buf) throws GeneralSecurityException;
+
     ByteBuf cipher(ChannelHandlerContext ctx, ByteBuf in) throws GeneralSecurityException;
 }
@@ -65,6 +65,23 @@ public class JavaCipher implements BungeeCipher
         return heapOut;
     }
 
+    @Override
+    public void cipherInPlace(ByteBuf buf) throws ShortBufferException
+    {
+        int readableBytes = buf.readableBytes();
+        if ( buf.hasArray() )
+        {
+            // Cipher allows the same array for input and output
+            int offset = buf.arrayOffset() + buf.readerIndex();
+            cipher.update( buf.array(), offset, readableBytes, buf.array(), offset );
+        } else
+        {
+            byte[] heapIn = bufToByte( buf.duplicate() );
+            cipher.update( heapIn, 0, readableBytes, heapIn, 0 );
+            buf.setBytes( buf.readerIndex(), heapIn, 0, readableBytes );
+        }
+    }
+
     @Override
     public void free()
     {
@@ -62,6 +62,24 @@ public class NativeCipher implements BungeeCipher
         out.writerIndex( out.writerIndex() + length );
     }
 
+    @Override
+    public void cipherInPlace(ByteBuf buf) throws GeneralSecurityException
+    {
+        // Smoke tests
+        buf.memoryAddress();
+        Preconditions.checkState( ctx != 0, "Invalid pointer to AES key!" );
+
+        int length = buf.readableBytes();
+        if ( length <= 0 )
+        {
+            return;
+        }
+
+        // mbed TLS reads each byte before it writes it back
+        long address = buf.memoryAddress() + buf.readerIndex();
+        nativeCipher.cipher( ctx, address, address, length );
+    }
+
     @Override
     public ByteBuf cipher(ChannelHandlerContext ctx, ByteBuf in) throws GeneralSecurityException
     {
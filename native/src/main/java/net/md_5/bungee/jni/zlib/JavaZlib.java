@@ -5,10 +5,19 @@ import java.util.zip.DataFormatException;
 import java.util.zip.Deflater;
 import java.util.zip.Inflater;
 
+/**
+ * Zlib through {@link Deflater} and {@link Inflater}, which only work on
+ * arrays. Heap buffers are processed in place, other buffers are copied
+ * through arrays kept by this instance.
+ */
 public class JavaZlib implements BungeeZlib
 {
 
+    // Larger inputs are rare, don't hold on to arrays for them
+    private static final int MAX_KEPT_INPUT = 1 << 16;
+    //
     private final byte[] buffer = new byte[ 8192 ];
+    private byte[] input = new byte[ 0 ];
     //
     private boolean compress;
     private Deflater deflater;
@@ -45,32 +54,73 @@ public class JavaZlib implements BungeeZlib
     @Override
     public void process(ByteBuf in, ByteBuf out) throws DataFormatException
     {
-        byte[] inData = new byte[ in.readableBytes() ];
-        in.readBytes( inData );
+        int length = in.readableBytes();
+        byte[] inData;
+        int inOffset;
+        if ( in.hasArray() )
+        {
+            inData = in.array();
+            inOffset = in.arrayOffset() + in.readerIndex();
+        } else
+        {
+            inData = input( length );
+            inOffset = 0;
+            in.getBytes( in.readerIndex(), inData, 0, length );
+        }
+        in.skipBytes( length );
 
         if ( compress )
         {
-            deflater.setInput( inData );
+            deflater.setInput( inData, inOffset, length );
             deflater.finish();
 
             while ( !deflater.finished() )
             {
-                int count = deflater.deflate( buffer );
-                out.writeBytes( buffer, 0, count );
+                if ( out.hasArray() )
+                {
+                    out.ensureWritable( buffer.length );
+                    int count = deflater.deflate( out.array(), out.arrayOffset() + out.writerIndex(), out.writableBytes() );
+                    out.writerIndex( out.writerIndex() + count );
+                } else
+                {
+                    int count = deflater.deflate( buffer );
+                    out.writeBytes( buffer, 0, count );
+                }
             }
 
             deflater.reset();
         } else
         {
-            inflater.setInput( inData );
+            inflater.setInput( inData, inOffset, length );
 
-            while ( !inflater.finished() && inflater.getTotalIn() < inData.length )
+            while ( !inflater.finished() && inflater.getTotalIn() < length )
             {
-                int count = inflater.inflate( buffer );
-                out.writeBytes( buffer, 0, count );
+                if ( out.hasArray() )
+                {
+                    out.ensureWritable( buffer.length );
+                    int count = inflater.inflate( out.array(), out.arrayOffset() + out.writerIndex(), out.writableBytes() );
+                    out.writerIndex( out.writerIndex() + count );
+                } else
+                {
+                    int count = inflater.inflate( buffer );
+                    out.writeBytes( buffer, 0, count );
+                }
             }
 
             inflater.reset();
         }
     }
+
+    private byte[] input(int length)
+    {
+        if ( length > MAX_KEPT_INPUT )
+        {
+            return new byte[ length ];
+        }
+        if ( input.length < length )
+        {
+            input = new byte[ Math.min( MAX_KEPT_INPUT, Integer.highestOneBit( length ) << 1 ) ];
+        }
+        return input;
+    }
 }
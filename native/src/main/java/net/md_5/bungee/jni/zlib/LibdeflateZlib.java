@@ -0,0 +1,85 @@
+package net.md_5.bungee.jni.zlib;
+
+import com.google.common.base.Preconditions;
+import io.netty.buffer.ByteBuf;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import lombok.Getter;
+
+/**
+ * Zlib through libdeflate, which compresses and decompresses whole buffers
+ * in one call instead of streaming them. Packets are always processed
+ * whole, so this needs none of the bookkeeping of {@link NativeZlib}.
+ * <p>
+ * Decompression writes into the writable bytes of the output, which must
+ * already hold the uncompressed size. Packets announce that size, and one
+ * which does not fit is rejected rather than decompressed again into a
+ * larger buffer.
+ */
+public class LibdeflateZlib implements BungeeZlib
+{
+
+    @Getter
+    private final NativeDeflateImpl nativeDeflate = new NativeDeflateImpl();
+    /*============================================================================*/
+    private boolean compress;
+    private long ctx;
+
+    @Override
+    public void init(boolean compress, int level)
+    {
+        free();
+
+        this.compress = compress;
+        // libdeflate has levels up to 12, but zlib's default has no number
+        this.ctx = nativeDeflate.init( compress, ( level == Deflater.DEFAULT_COMPRESSION ) ? 6 : level );
+    }
+
+    @Override
+    public void free()
+    {
+        if ( ctx != 0 )
+        {
+            nativeDeflate.free( ctx, compress );
+            ctx = 0;
+        }
+    }
+
+    @Override
+    public void process(ByteBuf in, ByteBuf out) throws DataFormatException
+    {
+        if ( !in.hasMemoryAddress() )
+        {
+            // Composite buffers from entity rewriting have no single address to hand over
+            ByteBuf direct = in.alloc().directBuffer( in.readableBytes() );
+            try
+            {
+                direct.writeBytes( in );
+                process( direct, out );
+            } finally
+            {
+                direct.release();
+            }
+            return;
+        }
+
+        // Smoke tests
+        out.memoryAddress();
+        Preconditions.checkState( ctx != 0, "Invalid pointer to compress!" );
+
+        int inLength = in.readableBytes();
+        if ( compress )
+        {
+            out.ensureWritable( nativeDeflate.compressBound( ctx, inLength ) );
+        }
+
+        int processed = nativeDeflate.process( ctx, in.memoryAddress() + in.readerIndex(), inLength, out.memoryAddress() + out.writerIndex(), out.writableBytes(), compress );
+        if ( processed == -1 )
+        {
+            throw new DataFormatException( "Decompressed packet larger than the " + out.writableBytes() + " bytes expected" );
+        }
+
+        in.skipBytes( inLength );
+        out.writerIndex( out.writerIndex() + processed );
+    }
+}
@@ -0,0 +1,18 @@
+package net.md_5.bungee.jni.zlib;
+
+public class NativeDeflateImpl
+{
+
+    native long init(boolean compress, int compressionLevel);
+
+    native void free(long ctx, boolean compress);
+
+    native int compressBound(long ctx, int inLength);
+
+    /**
+     * Compresses or decompresses the whole input at once.
+     *
+     * @return the number of bytes written, -1 if the output is too small
+     */
+    native int process(long ctx, long in, int inLength, long out, int outLength, boolean compress);
+}
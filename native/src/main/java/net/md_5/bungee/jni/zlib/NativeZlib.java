@@ -39,8 +39,22 @@ public class NativeZlib implements BungeeZlib
     @Override
     public void process(ByteBuf in, ByteBuf out) throws DataFormatException
     {
+        if ( !in.hasMemoryAddress() )
+        {
+            // Composite buffers from entity rewriting have no single address to hand over
+            ByteBuf direct = in.alloc().directBuffer( in.readableBytes() );
+            try
+            {
+                direct.writeBytes( in );
+                process( direct, out );
+            } finally
+            {
+                direct.release();
+            }
+            return;
+        }
+
         // Smoke tests
-        in.memoryAddress();
         out.memoryAddress();
         Preconditions.checkState( ctx != 0, "Invalid pointer to compress!" );
 
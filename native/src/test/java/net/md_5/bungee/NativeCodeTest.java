@@ -0,0 +1,103 @@
+package net.md_5.bungee;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermissions;
+import net.md_5.bungee.jni.NativeCode;
+import net.md_5.bungee.jni.zlib.BungeeZlib;
+import net.md_5.bungee.jni.zlib.JavaZlib;
+import net.md_5.bungee.jni.zlib.NativeZlib;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+public class NativeCodeTest
+{
+
+    @Test
+    public void testCacheReused() throws Exception
+    {
+        Assume.assumeTrue( "No native code for this platform", NativeCode.isSupported() );
+
+        File cacheDir = Files.createTempDirectory( "bungeecord-native-test" ).toFile();
+        String previous = System.setProperty( "net.md_5.bungee.native.cache", cacheDir.getPath() );
+        try
+        {
+            NativeCode<BungeeZlib> first = new NativeCode( "native-compress", JavaZlib.class, NativeZlib.class );
+            Assert.assertTrue( "Native code failed to load!", first.load() );
+            Assert.assertEquals( NativeZlib.class, first.getImplementation() );
+
+            File extracted = new File( first.getSource() );
+            Assert.assertEquals( "Library should be extracted to the cache", cacheDir, extracted.getParentFile() );
+            long modified = extracted.lastModified();
+
+            NativeCode<BungeeZlib> second = new NativeCode( "native-compress", JavaZlib.class, NativeZlib.class );
+            Assert.assertTrue( "Native code failed to load!", second.load() );
+            Assert.assertEquals( "Cached copy should be reused", first.getSource(), second.getSource() );
+            Assert.assertEquals( modified, extracted.lastModified() );
+            Assert.assertEquals( 1, cacheDir.list().length );
+
+            // A damaged copy is replaced, never truncate the one which is mapped
+            Files.delete( extracted.toPath() );
+            Files.write( extracted.toPath(), new byte[]
+            {
+                0
+            } );
+            NativeCode<BungeeZlib> third = new NativeCode( "native-compress", JavaZlib.class, NativeZlib.class );
+            Assert.assertTrue( "Native code failed to load!", third.load() );
+            Assert.assertTrue( extracted.length() > 1 );
+        } finally
+        {
+            if ( previous == null )
+            {
+                System.clearProperty( "net.md_5.bungee.native.cache" );
+            } else
+            {
+                System.setProperty( "net.md_5.bungee.native.cache", previous );
+            }
+            for ( File file : cacheDir.listFiles() )
+            {
+                file.delete();
+            }
+            cacheDir.delete();
+        }
+    }
+
+    @Test
+    public void testSharedCacheRefused() throws Exception
+    {
+        Assume.assumeTrue( "No native code for this platform", NativeCode.isSupported() );
+
+        File cacheDir = Files.createTempDirectory( "bungeecord-native-test" ).toFile();
+        Files.setPosixFilePermissions( cacheDir.toPath(), PosixFilePermissions.fromString( "rwxrwxrwx" ) );
+        String previous = System.setProperty( "net.md_5.bungee.native.cache", cacheDir.getPath() );
+        try
+        {
+            // Anyone could swap the library in there before it is loaded
+            NativeCode<BungeeZlib> code = new NativeCode( "native-compress", JavaZlib.class, NativeZlib.class );
+            Assert.assertTrue( "Native code failed to load!", code.load() );
+            Assert.assertNotEquals( cacheDir, new File( code.getSource() ).getParentFile() );
+            Assert.assertEquals( 0, cacheDir.list().length );
+        } finally
+        {
+            if ( previous == null )
+            {
+                System.clearProperty( "net.md_5.bungee.native.cache" );
+            } else
+            {
+                System.setProperty( "net.md_5.bungee.native.cache", previous );
+            }
+            cacheDir.delete();
+        }
+    }
+
+    @Test
+    public void testDescribeFallback()
+    {
+        NativeCode<BungeeZlib> missing = new NativeCode( "native-missing", JavaZlib.class, NativeZlib.class );
+        Assert.assertFalse( missing.load() );
+        Assert.assertEquals( JavaZlib.class, missing.getImplementation() );
+        Assert.assertEquals( "Java (JavaZlib)", missing.describe() );
+        Assert.assertNull( missing.getSource() );
+    }
+}
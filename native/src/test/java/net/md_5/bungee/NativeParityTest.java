@@ -0,0 +1,144 @@
+package net.md_5.bungee;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.util.Random;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import net.md_5.bungee.jni.NativeCode;
+import net.md_5.bungee.jni.cipher.BungeeCipher;
+import net.md_5.bungee.jni.cipher.JavaCipher;
+import net.md_5.bungee.jni.cipher.NativeCipher;
+import net.md_5.bungee.jni.zlib.BungeeZlib;
+import net.md_5.bungee.jni.zlib.JavaZlib;
+import net.md_5.bungee.jni.zlib.NativeZlib;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks the native code of this platform against the Java implementations.
+ */
+public class NativeParityTest
+{
+
+    private static final NativeCode<BungeeCipher> cipherFactory = new NativeCode( "native-cipher", JavaCipher.class, NativeCipher.class );
+    private static final NativeCode<BungeeZlib> zlibFactory = new NativeCode( "native-compress", JavaZlib.class, NativeZlib.class );
+    private static final int[] SIZES =
+    {
+        1, 15, 16, 17, 255, 4096, 65536, 1 << 20
+    };
+    //
+    private final Random random = new Random( 1 );
+
+    @Before
+    public void load()
+    {
+        Assume.assumeTrue( "No native code for this platform", NativeCode.isSupported() );
+        System.out.println( "Testing natives for " + NativeCode.getPlatform() );
+        Assert.assertTrue( "Native cipher failed to load!", cipherFactory.load() );
+        Assert.assertTrue( "Native compression failed to load!", zlibFactory.load() );
+    }
+
+    @Test
+    public void testCipher() throws Exception
+    {
+        byte[] keyBytes = new byte[ 16 ];
+        random.nextBytes( keyBytes );
+        SecretKey key = new SecretKeySpec( keyBytes, "AES" );
+
+        for ( boolean forEncryption : new boolean[]
+        {
+            true, false
+        } )
+        {
+            BungeeCipher nativeCipher = new NativeCipher();
+            BungeeCipher javaCipher = new JavaCipher();
+            BungeeCipher inPlaceCipher = new NativeCipher();
+            nativeCipher.init( forEncryption, key );
+            javaCipher.init( forEncryption, key );
+            inPlaceCipher.init( forEncryption, key );
+
+            // The cipher state carries over between calls, as it does between packets
+            for ( int size : SIZES )
+            {
+                ByteBuf in = randomBuffer( size );
+                ByteBuf nativeOut = Unpooled.directBuffer( size );
+                ByteBuf javaOut = Unpooled.directBuffer( size );
+
+                nativeCipher.cipher( in.duplicate(), nativeOut );
+                javaCipher.cipher( in.duplicate(), javaOut );
+                Assert.assertEquals( "Ciphers differ at " + size + " bytes", javaOut, nativeOut );
+
+                inPlaceCipher.cipherInPlace( in );
+                Assert.assertEquals( "In place cipher differs at " + size + " bytes", javaOut, in );
+
+                in.release();
+                nativeOut.release();
+                javaOut.release();
+            }
+
+            nativeCipher.free();
+            javaCipher.free();
+            inPlaceCipher.free();
+        }
+    }
+
+    @Test
+    public void testZlib() throws Exception
+    {
+        for ( int size : SIZES )
+        {
+            ByteBuf data = compressibleBuffer( size );
+
+            ByteBuf nativeCompressed = process( zlibFactory.newInstance(), true, data.duplicate() );
+            ByteBuf javaCompressed = process( new JavaZlib(), true, data.duplicate() );
+
+            assertInflates( data, new JavaZlib(), nativeCompressed );
+            assertInflates( data, zlibFactory.newInstance(), javaCompressed );
+
+            data.release();
+        }
+    }
+
+    private void assertInflates(ByteBuf expected, BungeeZlib zlib, ByteBuf compressed) throws Exception
+    {
+        ByteBuf inflated = process( zlib, false, compressed );
+        Assert.assertEquals( "Inflated data differs at " + expected.readableBytes() + " bytes", expected, inflated );
+        inflated.release();
+        compressed.release();
+    }
+
+    private static ByteBuf process(BungeeZlib zlib, boolean compress, ByteBuf in) throws Exception
+    {
+        ByteBuf out = Unpooled.directBuffer();
+        zlib.init( compress, 6 );
+        zlib.process( in, out );
+        zlib.free();
+        return out;
+    }
+
+    private ByteBuf randomBuffer(int size)
+    {
+        byte[] bytes = new byte[ size ];
+        random.nextBytes( bytes );
+        return Unpooled.directBuffer( size ).writeBytes( bytes );
+    }
+
+    private ByteBuf compressibleBuffer(int size)
+    {
+        ByteBuf buf = Unpooled.directBuffer( size );
+        while ( buf.writerIndex() < size )
+        {
+            // Runs of repeated bytes, like most packet data
+            int run = Math.min( size - buf.writerIndex(), random.nextInt( 32 ) + 1 );
+            int value = random.nextInt( 4 );
+            for ( int i = 0; i < run; i++ )
+            {
+                buf.writeByte( value );
+            }
+        }
+        return buf;
+    }
+}
@@ -1,6 +1,7 @@
 package net.md_5.bungee;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
 import io.netty.buffer.Unpooled;
 import java.util.Arrays;
 import java.util.Random;
@@ -8,8 +9,10 @@ import java.util.zip.DataFormatException;
 import net.md_5.bungee.jni.NativeCode;
 import net.md_5.bungee.jni.zlib.BungeeZlib;
 import net.md_5.bungee.jni.zlib.JavaZlib;
+import net.md_5.bungee.jni.zlib.LibdeflateZlib;
 import net.md_5.bungee.jni.zlib.NativeZlib;
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Test;
 
 public class NativeZlibTest
@@ -17,6 +20,8 @@ public class NativeZlibTest
 
     private final NativeCode<BungeeZlib> factory = new NativeCode( "native-compress", JavaZlib.class, NativeZlib.class );
 
+    private final NativeCode<BungeeZlib> libdeflate = new NativeCode( "native-libdeflate", factory, LibdeflateZlib.class );
+
     @Test
     public void doTest() throws DataFormatException
     {
@@ -28,6 +33,110 @@ public class NativeZlibTest
         test( new JavaZlib() );
     }
 
+    @Test
+    public void testComposite() throws DataFormatException
+    {
+        if ( NativeCode.isSupported() )
+        {
+            Assert.assertTrue( "Native code failed to load!", factory.load() );
+            testComposite( factory.newInstance() );
+        }
+        testComposite( new JavaZlib() );
+    }
+
+    @Test
+    public void testLibdeflate() throws DataFormatException
+    {
+        // Only built where libdeflate is installed
+        Assume.assumeTrue( "libdeflate is not available", libdeflate.load() && libdeflate.isLoaded() );
+        test( libdeflate.newInstance() );
+        testComposite( libdeflate.newInstance() );
+
+        // Streams must be interchangeable with zlib
+        byte[] dataBuf = new byte[ 1 << 16 ];
+        new Random().nextBytes( dataBuf );
+        ByteBuf originalBuf = Unpooled.directBuffer().writeBytes( dataBuf );
+        ByteBuf compressed = Unpooled.directBuffer();
+        ByteBuf uncompressed = Unpooled.directBuffer();
+
+        BungeeZlib zlib = libdeflate.newInstance();
+        zlib.init( true, 6 );
+        zlib.process( originalBuf, compressed );
+
+        zlib = new JavaZlib();
+        zlib.init( false, 0 );
+        zlib.process( compressed, uncompressed );
+
+        Assert.assertEquals( "Results do not match", Unpooled.wrappedBuffer( dataBuf ), uncompressed );
+
+        // Output beyond the announced size is rejected, not decompressed again into a larger buffer
+        compressed.readerIndex( 0 );
+        zlib = libdeflate.newInstance();
+        zlib.init( false, 0 );
+        try
+        {
+            zlib.process( compressed, Unpooled.directBuffer( dataBuf.length - 1 ) );
+            Assert.fail( "Packet larger than announced should be rejected" );
+        } catch ( DataFormatException ex )
+        {
+        }
+    }
+
+    @Test
+    public void testHeap() throws DataFormatException
+    {
+        BungeeZlib zlib = new JavaZlib();
+        byte[] dataBuf = new byte[ 1 << 16 ];
+        new Random().nextBytes( dataBuf );
+
+        // Offset into the backing array, as with pooled heap buffers
+        ByteBuf originalBuf = Unpooled.wrappedBuffer( new byte[ dataBuf.length + 200 ] ).slice( 100, dataBuf.length );
+        originalBuf.setBytes( 0, dataBuf );
+
+        ByteBuf compressed = Unpooled.buffer();
+        compressed.writeZero( 3 );
+        compressed.skipBytes( 3 );
+
+        zlib.init( true, 9 );
+        zlib.process( originalBuf, compressed );
+        Assert.assertFalse( "Input should be consumed", originalBuf.isReadable() );
+
+        ByteBuf uncompressed = Unpooled.buffer();
+
+        zlib.init( false, 0 );
+        zlib.process( compressed, uncompressed );
+
+        byte[] check = new byte[ uncompressed.readableBytes() ];
+        uncompressed.readBytes( check );
+
+        Assert.assertTrue( "Results do not match", Arrays.equals( dataBuf, check ) );
+    }
+
+    private void testComposite(BungeeZlib zlib) throws DataFormatException
+    {
+        byte[] dataBuf = new byte[ 1 << 16 ];
+        new Random().nextBytes( dataBuf );
+
+        CompositeByteBuf originalBuf = Unpooled.compositeBuffer();
+        originalBuf.addComponents( true, Unpooled.wrappedBuffer( dataBuf, 0, 100 ), Unpooled.wrappedBuffer( dataBuf, 100, dataBuf.length - 100 ) );
+
+        ByteBuf compressed = Unpooled.directBuffer();
+
+        zlib.init( true, 9 );
+        zlib.process( originalBuf, compressed );
+
+        // Sized like PacketDecompressor does from the announced size
+        ByteBuf uncompressed = Unpooled.directBuffer( dataBuf.length );
+
+        zlib.init( false, 0 );
+        zlib.process( compressed, uncompressed );
+
+        byte[] check = new byte[ uncompressed.readableBytes() ];
+        uncompressed.readBytes( check );
+
+        Assert.assertTrue( "Results do not match", Arrays.equals( dataBuf, check ) );
+    }
+
     private void test(BungeeZlib zlib) throws DataFormatException
     {
         System.out.println( "Testing: " + zlib );
@@ -53,7 +162,8 @@ public class NativeZlibTest
 
         zlib.process( originalBuf, compressed );
 
-        ByteBuf uncompressed = Unpooled.directBuffer();
+        // Sized like PacketDecompressor does from the announced size
+        ByteBuf uncompressed = Unpooled.directBuffer( dataBuf.length );
 
         zlib.init( false, 0 );
         zlib.process( compressed, uncompressed );
@@ -0,0 +1,18 @@
+package net.md_5.bungee.protocol;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.DefaultByteBufHolder;
+
+/**
+ * A packet which is already compressed, starting at the data length. It
+ * passes the packet encoder and compressor untouched and is framed by
+ * {@link Varint21LengthFieldPrepender}.
+ */
+public class CompressedPacket extends DefaultByteBufHolder
+{
+
+    public CompressedPacket(ByteBuf data)
+    {
+        super( data );
+    }
+}
@@ -3,6 +3,7 @@ package net.md_5.bungee.protocol;
 import com.google.common.base.Charsets;
 import com.google.common.base.Preconditions;
 import io.netty.buffer.ByteBuf;
+import io.netty.util.Recycler;
 import java.util.ArrayList;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
@@ -13,6 +14,9 @@ import java.util.UUID;
 public abstract class DefinedPacket
 {
 
+    // Set while this packet was taken from a PacketRecycler and may be reused
+    private Recycler.Handle<DefinedPacket> recyclerHandle;
+
     public static void writeString(String s, ByteBuf buf)
     {
         if ( s.length() > Short.MAX_VALUE )
@@ -49,6 +53,15 @@ public abstract class DefinedPacket
         buf.writeBytes( b );
     }
 
+    /**
+     * Estimates the bytes {@link #writeString(String, ByteBuf)} takes for a
+     * string, exact as long as it is ASCII.
+     */
+    public static int stringSize(String s)
+    {
+        return varIntSize( s.length() ) + s.length();
+    }
+
     public static byte[] toArray(ByteBuf buf)
     {
         byte[] ret = new byte[ buf.readableBytes() ];
@@ -176,6 +189,27 @@ public abstract class DefinedPacket
         }
     }
 
+    public static int varIntSize(int value)
+    {
+        if ( ( value & 0xFFFFFF80 ) == 0 )
+        {
+            return 1;
+        }
+        if ( ( value & 0xFFFFC000 ) == 0 )
+        {
+            return 2;
+        }
+        if ( ( value & 0xFFE00000 ) == 0 )
+        {
+            return 3;
+        }
+        if ( ( value & 0xF0000000 ) == 0 )
+        {
+            return 4;
+        }
+        return 5;
+    }
+
     public static int readVarShort(ByteBuf buf)
     {
         int low = buf.readUnsignedShort();
@@ -234,6 +268,58 @@ public abstract class DefinedPacket
         write( buf );
     }
 
+    /**
+     * Estimates the bytes the fields of this packet take when written, so the
+     * encoder can allocate its buffer once. Packets with large or variable
+     * contents should override this, the encoder learns the size of the
+     * others from the packets it wrote before.
+     *
+     * @param direction the direction the packet is written in
+     * @param protocolVersion the version the packet is written for
+     * @return the estimated size, -1 if unknown
+     */
+    public int expectedSize(ProtocolConstants.Direction direction, int protocolVersion)
+    {
+        return -1;
+    }
+
+    final void setRecyclerHandle(Recycler.Handle<DefinedPacket> recyclerHandle)
+    {
+        this.recyclerHandle = recyclerHandle;
+    }
+
+    /**
+     * Marks this packet as kept beyond the handling of the frame it was decoded
+     * from, for example because it was sent on to another connection, so that
+     * it is never handed out again by its {@link PacketRecycler}.
+     */
+    public final void escape()
+    {
+        recyclerHandle = null;
+    }
+
+    /**
+     * Returns this packet to its {@link PacketRecycler}, if it came from one
+     * and has not escaped.
+     */
+    final void recycle()
+    {
+        if ( recyclerHandle != null )
+        {
+            reset();
+            recyclerHandle.recycle( this );
+        }
+    }
+
+    /**
+     * Clears every field of a pooled packet before it is reused. Packets
+     * registered with a {@link PacketRecycler} must override this, as their
+     * read methods do not necessarily set every field.
+     */
+    protected void reset()
+    {
+    }
+
     public abstract void handle(AbstractPacketHandler handler) throws Exception;
 
     @Override
@@ -0,0 +1,19 @@
+package net.md_5.bungee.protocol;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.DefaultByteBufHolder;
+
+/**
+ * A packet which has already been encoded, compressed and framed for a
+ * connection, so it can be shared by many connections. It passes the packet
+ * encoder and compressor untouched and is unwrapped by
+ * {@link Varint21LengthFieldPrepender}, leaving only encryption.
+ */
+public class EncodedPacket extends DefaultByteBufHolder
+{
+
+    public EncodedPacket(ByteBuf data)
+    {
+        super( data );
+    }
+}
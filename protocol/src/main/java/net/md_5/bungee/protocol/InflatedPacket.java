@@ -0,0 +1,42 @@
+package net.md_5.bungee.protocol;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.util.AbstractReferenceCounted;
+import io.netty.util.ReferenceCounted;
+import lombok.Getter;
+
+/**
+ * A packet inflated from a compressed frame together with that frame, so
+ * {@link MinecraftDecoder} can hand both to the {@link PacketWrapper}.
+ */
+@Getter
+public class InflatedPacket extends AbstractReferenceCounted
+{
+
+    private final ByteBuf inflated;
+    /**
+     * The frame as received, starting at the data length.
+     */
+    private final ByteBuf compressed;
+
+    public InflatedPacket(ByteBuf inflated, ByteBuf compressed)
+    {
+        this.inflated = inflated;
+        this.compressed = compressed;
+    }
+
+    @Override
+    protected void deallocate()
+    {
+        inflated.release();
+        compressed.release();
+    }
+
+    @Override
+    public ReferenceCounted touch(Object hint)
+    {
+        inflated.touch( hint );
+        compressed.touch( hint );
+        return this;
+    }
+}
@@ -4,11 +4,9 @@ import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToMessageDecoder;
 import java.util.List;
-import lombok.AllArgsConstructor;
 import lombok.Setter;
 
-@AllArgsConstructor
-public class MinecraftDecoder extends MessageToMessageDecoder<ByteBuf>
+public class MinecraftDecoder extends MessageToMessageDecoder<Object>
 {
 
     @Setter
@@ -16,38 +14,70 @@ public class MinecraftDecoder extends MessageToMessageDecoder<ByteBuf>
     private final boolean server;
     @Setter
     private int protocolVersion;
+    /**
+     * Leave reading the fields of known packets to
+     * {@link PacketWrapper#readPacket()}, so packets which are only relayed
+     * are never parsed.
+     */
+    private final boolean lazy;
+
+    public MinecraftDecoder(Protocol protocol, boolean server, int protocolVersion)
+    {
+        this( protocol, server, protocolVersion, false );
+    }
+
+    public MinecraftDecoder(Protocol protocol, boolean server, int protocolVersion, boolean lazy)
+    {
+        this.protocol = protocol;
+        this.server = server;
+        this.protocolVersion = protocolVersion;
+        this.lazy = lazy;
+    }
+
+    @Override
+    public boolean acceptInboundMessage(Object msg) throws Exception
+    {
+        return msg instanceof ByteBuf || msg instanceof InflatedPacket;
+    }
 
     @Override
-    protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception
+    protected void decode(ChannelHandlerContext ctx, Object msg, List<Object> out) throws Exception
+    {
+        if ( msg instanceof InflatedPacket )
+        {
+            InflatedPacket inflated = (InflatedPacket) msg;
+            decode( inflated.getInflated(), inflated.getCompressed(), out );
+        } else
+        {
+            decode( (ByteBuf) msg, null, out );
+        }
+    }
+
+    private void decode(ByteBuf in, ByteBuf compressed, List<Object> out)
     {
         Protocol.DirectionData prot = ( server ) ? protocol.TO_SERVER : protocol.TO_CLIENT;
-        ByteBuf slice = in.copy(); // Can't slice this one due to EntityMap :(
+        ByteBuf slice = in.retainedSlice(); // EntityMap rewrites in place or swaps in a new buffer
 
         try
         {
             int packetId = DefinedPacket.readVarInt( in );
 
             DefinedPacket packet = prot.createPacket( packetId, protocolVersion );
-            if ( packet != null )
+            if ( packet != null && !lazy )
             {
-                try
-                {
-                    packet.read( in, prot.getDirection(), protocolVersion );
-                }
-                catch( IndexOutOfBoundsException e )
-                {
-                    throw new BadPacketException( "Unexpected end of packet " + packet.getClass(), e );
-                }
-                if ( in.isReadable() )
-                {
-                    throw new BadPacketException( "Did not read all bytes from packet " + packet.getClass() + " " + packetId + " Protocol " + protocol + " Direction " + prot.getDirection().name() );
-                }
-            } else
-            {
-                in.skipBytes( in.readableBytes() );
+                read( packet, in, prot, protocolVersion, packetId );
             }
 
-            out.add( new PacketWrapper( packet, slice ) );
+            PacketWrapper wrapper = PacketWrapper.newInstance( packet, slice );
+            if ( packet != null && lazy )
+            {
+                wrapper.deferRead( prot, protocolVersion, packetId );
+            }
+            if ( compressed != null )
+            {
+                wrapper.compressed = compressed.retain();
+            }
+            out.add( wrapper );
             slice = null;
         } finally
         {
@@ -57,4 +87,20 @@ public class MinecraftDecoder extends MessageToMessageDecoder<ByteBuf>
             }
         }
     }
+
+    static void read(DefinedPacket packet, ByteBuf in, Protocol.DirectionData prot, int protocolVersion, int packetId)
+    {
+        try
+        {
+            packet.read( in, prot.getDirection(), protocolVersion );
+        }
+        catch( IndexOutOfBoundsException e )
+        {
+            throw new BadPacketException( "Unexpected end of packet " + packet.getClass(), e );
+        }
+        if ( in.isReadable() )
+        {
+            throw new BadPacketException( "Did not read all bytes from packet " + packet.getClass() + " " + packetId + " Protocol " + prot.getProtocolPhase() + " Direction " + prot.getDirection().name() );
+        }
+    }
 }
@@ -10,17 +10,69 @@ import lombok.Setter;
 public class MinecraftEncoder extends MessageToByteEncoder<DefinedPacket>
 {
 
+    // Recent sizes of packets without an estimate of their own
+    private static final ClassValue<SizeHistory> SIZES = new ClassValue<SizeHistory>()
+    {
+        @Override
+        protected SizeHistory computeValue(Class<?> type)
+        {
+            return new SizeHistory();
+        }
+    };
+    //
     @Setter
     private Protocol protocol;
     private boolean server;
     @Setter
     private int protocolVersion;
 
+    @Override
+    protected ByteBuf allocateBuffer(ChannelHandlerContext ctx, DefinedPacket msg, boolean preferDirect) throws Exception
+    {
+        Protocol.DirectionData prot = ( server ) ? protocol.TO_CLIENT : protocol.TO_SERVER;
+        int size = msg.expectedSize( prot.getDirection(), protocolVersion );
+        if ( size < 0 )
+        {
+            size = SIZES.get( msg.getClass() ).estimate;
+        }
+
+        // Room for the packet id
+        size += 5;
+        return ( preferDirect ) ? ctx.alloc().ioBuffer( size ) : ctx.alloc().heapBuffer( size );
+    }
+
     @Override
     protected void encode(ChannelHandlerContext ctx, DefinedPacket msg, ByteBuf out) throws Exception
     {
         Protocol.DirectionData prot = ( server ) ? protocol.TO_CLIENT : protocol.TO_SERVER;
         DefinedPacket.writeVarInt( prot.getId( msg.getClass(), protocolVersion ), out );
+
+        int start = out.writerIndex();
         msg.write( out, prot.getDirection(), protocolVersion );
+        SIZES.get( msg.getClass() ).record( out.writerIndex() - start );
+    }
+
+    /**
+     * Follows the size of a packet class, jumping up to larger packets
+     * straight away and slowly decaying towards smaller ones, so a buffer
+     * rarely has to grow.
+     */
+    static final class SizeHistory
+    {
+
+        // Racy on purpose, this is only a hint
+        int estimate = 64;
+
+        void record(int size)
+        {
+            int estimate = this.estimate;
+            if ( size > estimate )
+            {
+                this.estimate = size;
+            } else if ( size < estimate )
+            {
+                this.estimate = estimate - ( ( estimate - size ) >> 3 );
+            }
+        }
     }
 }
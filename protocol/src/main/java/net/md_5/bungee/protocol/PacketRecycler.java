@@ -0,0 +1,32 @@
+package net.md_5.bungee.protocol;
+
+import io.netty.util.Recycler;
+import java.util.function.Supplier;
+
+/**
+ * Packet factory which reuses the instances of a frequently decoded packet.
+ * Every thread, and therefore every event loop, keeps its own pool. Packets
+ * are returned by {@link PacketWrapper#trySingleRelease()} once they have been
+ * handled, unless they {@link DefinedPacket#escape() escaped}.
+ *
+ * @param <T> the packet class
+ */
+public final class PacketRecycler<T extends DefinedPacket> extends Recycler<T> implements Supplier<T>
+{
+
+    private final Supplier<T> constructor;
+
+    public PacketRecycler(Supplier<T> constructor)
+    {
+        this.constructor = constructor;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected T newObject(Handle<T> handle)
+    {
+        T packet = constructor.get();
+        packet.setRecyclerHandle( (Handle<DefinedPacket>) (Handle) handle );
+        return packet;
+    }
+}
@@ -1,24 +1,141 @@
 package net.md_5.bungee.protocol;
 
 import io.netty.buffer.ByteBuf;
-import lombok.RequiredArgsConstructor;
+import io.netty.handler.codec.DecoderException;
+import io.netty.util.Recycler;
 import lombok.Setter;
 
-@RequiredArgsConstructor
 public class PacketWrapper
 {
 
-    public final DefinedPacket packet;
-    public final ByteBuf buf;
+    private static final Recycler<PacketWrapper> RECYCLER = new Recycler<PacketWrapper>()
+    {
+        @Override
+        protected PacketWrapper newObject(Handle<PacketWrapper> handle)
+        {
+            return new PacketWrapper( handle );
+        }
+    };
+    //
+    public DefinedPacket packet;
+    /**
+     * The raw packet. Entity rewriting may swap this out for a new buffer.
+     */
+    public ByteBuf buf;
+    /**
+     * The compressed frame the packet was inflated from, if the decompressor
+     * kept it. It can be forwarded as is while {@link #buf} is unchanged and
+     * the receiver uses a compatible threshold.
+     */
+    public ByteBuf compressed;
     @Setter
     private boolean released;
+    private final Recycler.Handle<PacketWrapper> recyclerHandle;
+    // Set while the fields of packet are still to be read from buf
+    private Protocol.DirectionData pendingRead;
+    private int protocolVersion;
+    private int packetId;
+
+    public PacketWrapper(DefinedPacket packet, ByteBuf buf)
+    {
+        this.packet = packet;
+        this.buf = buf;
+        this.recyclerHandle = null;
+    }
+
+    private PacketWrapper(Recycler.Handle<PacketWrapper> recyclerHandle)
+    {
+        this.recyclerHandle = recyclerHandle;
+    }
+
+    /**
+     * Gets a pooled wrapper, which is returned to the pool together with its
+     * packet by {@link #trySingleRelease()} and must not be used after that.
+     */
+    public static PacketWrapper newInstance(DefinedPacket packet, ByteBuf buf)
+    {
+        PacketWrapper wrapper = RECYCLER.get();
+        wrapper.packet = packet;
+        wrapper.buf = buf;
+        return wrapper;
+    }
+
+    void deferRead(Protocol.DirectionData prot, int protocolVersion, int packetId)
+    {
+        this.pendingRead = prot;
+        this.protocolVersion = protocolVersion;
+        this.packetId = packetId;
+    }
+
+    /**
+     * Reads the fields of {@link #packet} if the decoder left that until the
+     * packet is actually used. This must happen before the buffer is changed,
+     * for example by entity rewriting.
+     */
+    public void readPacket()
+    {
+        if ( pendingRead == null )
+        {
+            return;
+        }
+
+        Protocol.DirectionData prot = pendingRead;
+        pendingRead = null;
+
+        int readerIndex = buf.readerIndex();
+        try
+        {
+            DefinedPacket.readVarInt( buf );
+            MinecraftDecoder.read( packet, buf, prot, protocolVersion, packetId );
+        } catch ( BadPacketException ex )
+        {
+            // Same as if the decoder had thrown it
+            throw new DecoderException( ex );
+        } finally
+        {
+            buf.readerIndex( readerIndex );
+        }
+    }
+
+    /**
+     * Releases the compressed frame, so the packet is compressed again when
+     * it is written.
+     */
+    public void releaseCompressed()
+    {
+        if ( compressed != null )
+        {
+            compressed.release();
+            compressed = null;
+        }
+    }
 
     public void trySingleRelease()
     {
+        if ( buf == null )
+        {
+            return; // Already recycled
+        }
+
+        releaseCompressed();
+
         if ( !released )
         {
             buf.release();
             released = true;
         }
+
+        if ( recyclerHandle != null )
+        {
+            if ( packet != null )
+            {
+                packet.recycle();
+            }
+            packet = null;
+            buf = null;
+            released = false;
+            pendingRead = null;
+            recyclerHandle.recycle( this );
+        }
     }
 }
@@ -1,14 +1,13 @@
 package net.md_5.bungee.protocol;
 
 import com.google.common.base.Preconditions;
-import com.google.common.collect.Iterables;
 import gnu.trove.map.TIntObjectMap;
 import gnu.trove.map.TObjectIntMap;
 import gnu.trove.map.hash.TIntObjectHashMap;
 import gnu.trove.map.hash.TObjectIntHashMap;
-import java.lang.reflect.Constructor;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Supplier;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import net.md_5.bungee.protocol.packet.BossBar;
@@ -48,6 +47,7 @@ public enum Protocol
         {
             TO_SERVER.registerPacket(
                     Handshake.class,
+                    Handshake::new,
                     map( ProtocolConstants.MINECRAFT_1_8, 0x00 )
             );
         }
@@ -59,24 +59,28 @@ public enum Protocol
         {
             TO_CLIENT.registerPacket(
                     KeepAlive.class,
+                    new PacketRecycler<>( KeepAlive::new ),
                     map( ProtocolConstants.MINECRAFT_1_8, 0x00 ),
                     map( ProtocolConstants.MINECRAFT_1_9, 0x1F ),
                     map( ProtocolConstants.MINECRAFT_1_12, 0x1F )
             );
             TO_CLIENT.registerPacket(
                     Login.class,
+                    Login::new,
                     map( ProtocolConstants.MINECRAFT_1_8, 0x01 ),
                     map( ProtocolConstants.MINECRAFT_1_9, 0x23 ),
                     map( ProtocolConstants.MINECRAFT_1_12, 0x23 )
             );
             TO_CLIENT.registerPacket(
                     Chat.class,
+                    new PacketRecycler<>( Chat::new ),
                     map( ProtocolConstants.MINECRAFT_1_8, 0x02 ),
                     map( ProtocolConstants.MINECRAFT_1_9, 0x0F ),
                     map( ProtocolConstants.MINECRAFT_1_12, 0x0F )
             );
             TO_CLIENT.registerPacket(
                     Respawn.class,
+                    Respawn::new,
                     map( ProtocolConstants.MINECRAFT_1_8, 0x07 ),
                     map( ProtocolConstants.MINECRAFT_1_9, 0x33 ),
                     map( ProtocolConstants.MINECRAFT_1_12, 0x34 ),
@@ -84,11 +88,13 @@ public enum Protocol
             );
             TO_CLIENT.registerPacket(
                     BossBar.class,
+                    BossBar::new,
                     map( ProtocolConstants.MINECRAFT_1_9, 0x0C ),
                     map( ProtocolConstants.MINECRAFT_1_12, 0x0C )
             );
             TO_CLIENT.registerPacket(
                     PlayerListItem.class, // PlayerInfo
+                    new PacketRecycler<>( PlayerListItem::new ),
                     map( ProtocolConstants.MINECRAFT_1_8, 0x38 ),
                     map( ProtocolConstants.MINECRAFT_1_9, 0x2D ),
                     map( ProtocolConstants.MINECRAFT_1_12, 0x2D ),
@@ -96,12 +102,14 @@ public enum Protocol
             );
             TO_CLIENT.registerPacket(
                     TabCompleteResponse.class,
+                    TabCompleteResponse::new,
                     map( ProtocolConstants.MINECRAFT_1_8, 0x3A ),
                     map( ProtocolConstants.MINECRAFT_1_9, 0x0E ),
                     map( ProtocolConstants.MINECRAFT_1_12, 0x0E )
             );
             TO_CLIENT.registerPacket(
                     ScoreboardObjective.class,
+                    ScoreboardObjective::new,
                     map( ProtocolConstants.MINECRAFT_1_8, 0x3B ),
                     map( ProtocolConstants.MINECRAFT_1_9, 0x3F ),
                     map( ProtocolConstants.MINECRAFT_1_12, 0x41 ),
@@ -109,6 +117,7 @@ public enum Protocol
             );
             TO_CLIENT.registerPacket(
                     ScoreboardScore.class,
+                    new PacketRecycler<>( ScoreboardScore::new ),
                     map( ProtocolConstants.MINECRAFT_1_8, 0x3C ),
                     map( ProtocolConstants.MINECRAFT_1_9, 0x42 ),
                     map( ProtocolConstants.MINECRAFT_1_12, 0x44 ),
@@ -116,6 +125,7 @@ public enum Protocol
             );
             TO_CLIENT.registerPacket(
                     ScoreboardDisplay.class,
+                    ScoreboardDisplay::new,
                     map( ProtocolConstants.MINECRAFT_1_8, 0x3D ),
                     map( ProtocolConstants.MINECRAFT_1_9, 0x38 ),
                     map( ProtocolConstants.MINECRAFT_1_12, 0x3A ),
@@ -123,6 +133,7 @@ public enum Protocol
             );
             TO_CLIENT.registerPacket(
                     Team.class,
+                    new PacketRecycler<>( Team::new ),
                     map( ProtocolConstants.MINECRAFT_1_8, 0x3E ),
                     map( ProtocolConstants.MINECRAFT_1_9, 0x41 ),
                     map( ProtocolConstants.MINECRAFT_1_12, 0x43 ),
@@ -130,24 +141,28 @@ public enum Protocol
             );
             TO_CLIENT.registerPacket(
                     PluginMessage.class,
+                    PluginMessage::new,
                     map( ProtocolConstants.MINECRAFT_1_8, 0x3F ),
                     map( ProtocolConstants.MINECRAFT_1_9, 0x18 ),
                     map( ProtocolConstants.MINECRAFT_1_12, 0x18 )
             );
             TO_CLIENT.registerPacket(
                     Kick.class,
+                    Kick::new,
                     map( ProtocolConstants.MINECRAFT_1_8, 0x40 ),
                     map( ProtocolConstants.MINECRAFT_1_9, 0x1A ),
                     map( ProtocolConstants.MINECRAFT_1_12, 0x1A )
             );
             TO_CLIENT.registerPacket(
                     Title.class,
+                    Title::new,
                     map( ProtocolConstants.MINECRAFT_1_8, 0x45 ),
                     map( ProtocolConstants.MINECRAFT_1_12, 0x47 ),
                     map( ProtocolConstants.MINECRAFT_1_12_1, 0x48 )
             );
             TO_CLIENT.registerPacket(
                     PlayerListHeaderFooter.class,
+                    PlayerListHeaderFooter::new,
                     map( ProtocolConstants.MINECRAFT_1_8, 0x47 ),
                     map( ProtocolConstants.MINECRAFT_1_9, 0x48 ),
                     map( ProtocolConstants.MINECRAFT_1_9_4, 0x47 ),
@@ -156,6 +171,7 @@ public enum Protocol
             );
             TO_CLIENT.registerPacket(
                     SetCompression.class,
+                    SetCompression::new,
                     map( ProtocolConstants.MINECRAFT_1_7_2, 0x46 , false ),
                     map( ProtocolConstants.MINECRAFT_1_7_6, 0x46 , false ),
                     map( ProtocolConstants.MINECRAFT_1_8, 0x46 , false )
@@ -163,6 +179,7 @@ public enum Protocol
 
             TO_SERVER.registerPacket(
                     KeepAlive.class,
+                    new PacketRecycler<>( KeepAlive::new ),
                     map( ProtocolConstants.MINECRAFT_1_8, 0x00 ),
                     map( ProtocolConstants.MINECRAFT_1_9, 0x0B ),
                     map( ProtocolConstants.MINECRAFT_1_12, 0x0C ),
@@ -170,6 +187,7 @@ public enum Protocol
             );
             TO_SERVER.registerPacket(
                     Chat.class,
+                    new PacketRecycler<>( Chat::new ),
                     map( ProtocolConstants.MINECRAFT_1_8, 0x01 ),
                     map( ProtocolConstants.MINECRAFT_1_9, 0x02 ),
                     map( ProtocolConstants.MINECRAFT_1_12, 0x03 ),
@@ -177,6 +195,7 @@ public enum Protocol
             );
             TO_SERVER.registerPacket(
                     TabCompleteRequest.class,
+                    TabCompleteRequest::new,
                     map( ProtocolConstants.MINECRAFT_1_8, 0x14 ),
                     map( ProtocolConstants.MINECRAFT_1_9, 0x01 ),
                     map( ProtocolConstants.MINECRAFT_1_12, 0x02 ),
@@ -184,6 +203,7 @@ public enum Protocol
             );
             TO_SERVER.registerPacket(
                     ClientSettings.class,
+                    ClientSettings::new,
                     map( ProtocolConstants.MINECRAFT_1_8, 0x15 ),
                     map( ProtocolConstants.MINECRAFT_1_9, 0x04 ),
                     map( ProtocolConstants.MINECRAFT_1_12, 0x05 ),
@@ -191,6 +211,7 @@ public enum Protocol
             );
             TO_SERVER.registerPacket(
                     PluginMessage.class,
+                    PluginMessage::new,
                     map( ProtocolConstants.MINECRAFT_1_8, 0x17 ),
                     map( ProtocolConstants.MINECRAFT_1_9, 0x09 ),
                     map( ProtocolConstants.MINECRAFT_1_12, 0x0A ),
@@ -205,19 +226,23 @@ public enum Protocol
         {
             TO_CLIENT.registerPacket(
                     StatusResponse.class,
+                    StatusResponse::new,
                     map( ProtocolConstants.MINECRAFT_1_8, 0x00 )
             );
             TO_CLIENT.registerPacket(
                     PingPacket.class,
+                    PingPacket::new,
                     map( ProtocolConstants.MINECRAFT_1_8, 0x01 )
             );
 
             TO_SERVER.registerPacket(
                     StatusRequest.class,
+                    StatusRequest::new,
                     map( ProtocolConstants.MINECRAFT_1_8, 0x00 )
             );
             TO_SERVER.registerPacket(
                     PingPacket.class,
+                    PingPacket::new,
                     map( ProtocolConstants.MINECRAFT_1_8, 0x01 )
             );
         }
@@ -229,27 +254,33 @@ public enum Protocol
         {
             TO_CLIENT.registerPacket(
                     Kick.class,
+                    Kick::new,
                     map( ProtocolConstants.MINECRAFT_1_8, 0x00 )
             );
             TO_CLIENT.registerPacket(
                     EncryptionRequest.class,
+                    EncryptionRequest::new,
                     map( ProtocolConstants.MINECRAFT_1_8, 0x01 )
             );
             TO_CLIENT.registerPacket(
                     LoginSuccess.class,
+                    LoginSuccess::new,
                     map( ProtocolConstants.MINECRAFT_1_8, 0x02 )
             );
             TO_CLIENT.registerPacket(
                     SetCompression.class,
+                    SetCompression::new,
                     map( ProtocolConstants.MINECRAFT_1_8, 0x03 )
             );
 
             TO_SERVER.registerPacket(
                     LoginRequest.class,
+                    LoginRequest::new,
                     map( ProtocolConstants.MINECRAFT_1_8, 0x00 )
             );
             TO_SERVER.registerPacket(
                     EncryptionResponse.class,
+                    EncryptionResponse::new,
                     map( ProtocolConstants.MINECRAFT_1_8, 0x01 )
             );
         }
@@ -299,7 +330,6 @@ public enum Protocol
 
         private final int protocolVersion;
         private final TObjectIntMap<Class<? extends DefinedPacket>> packetMap = new TObjectIntHashMap<>( MAX_PACKET_ID );
-        private final Constructor<? extends DefinedPacket>[] packetConstructors = new Constructor[ MAX_PACKET_ID ];
     }
 
     @RequiredArgsConstructor
@@ -320,14 +350,36 @@ public enum Protocol
     public static class DirectionData
     {
 
-        private final Protocol protocolPhase;
-        private final TIntObjectMap<ProtocolData> protocols = new TIntObjectHashMap<>();
+        // Protocol version -> index into protocols, -1 for unsupported versions
+        private static final int[] VERSION_INDEX;
+
+        static
         {
+            int maxVersion = 0;
             for ( int protocol : ProtocolConstants.SUPPORTED_VERSION_IDS )
             {
-                protocols.put( protocol, new ProtocolData( protocol ) );
+                maxVersion = Math.max( maxVersion, protocol );
+            }
+
+            VERSION_INDEX = new int[ maxVersion + 1 ];
+            Arrays.fill( VERSION_INDEX, -1 );
+            for ( int i = 0; i < ProtocolConstants.SUPPORTED_VERSION_IDS.size(); i++ )
+            {
+                VERSION_INDEX[ProtocolConstants.SUPPORTED_VERSION_IDS.get( i )] = i;
+            }
+        }
+        //
+        @Getter
+        private final Protocol protocolPhase;
+        private final ProtocolData[] protocols = new ProtocolData[ ProtocolConstants.SUPPORTED_VERSION_IDS.size() ];
+        {
+            for ( int i = 0; i < protocols.length; i++ )
+            {
+                protocols[i] = new ProtocolData( ProtocolConstants.SUPPORTED_VERSION_IDS.get( i ) );
             }
         }
+        // Packet factories of every version, indexed by version index * (MAX_PACKET_ID + 1) + packet ID
+        private final Supplier<? extends DefinedPacket>[] packetConstructors = new Supplier[ protocols.length * ( MAX_PACKET_ID + 1 ) ];
         private final TIntObjectMap<List<Integer>> linkedProtocols = new TIntObjectHashMap<>();
         {
             linkedProtocols.put( ProtocolConstants.MINECRAFT_1_7_2, Arrays.asList(
@@ -359,20 +411,26 @@ public enum Protocol
         @Getter
         private final ProtocolConstants.Direction direction;
 
-        private ProtocolData getProtocolData(int version)
+        private int getVersionIndex(int version)
         {
-            ProtocolData protocol = protocols.get( version );
-            if ( protocol == null && ( protocolPhase != Protocol.GAME ) )
+            int index = ( version >= 0 && version < VERSION_INDEX.length ) ? VERSION_INDEX[version] : -1;
+            if ( index == -1 && ( protocolPhase != Protocol.GAME ) )
             {
-                protocol = Iterables.getFirst( protocols.valueCollection(), null );
+                index = 0;
             }
-            return protocol;
+            return index;
+        }
+
+        private ProtocolData getProtocolData(int version)
+        {
+            int index = getVersionIndex( version );
+            return ( index == -1 ) ? null : protocols[index];
         }
 
         public final DefinedPacket createPacket(int id, int version)
         {
-            ProtocolData protocolData = getProtocolData( version );
-            if (protocolData == null)
+            int index = getVersionIndex( version );
+            if ( index == -1 )
             {
                 return null; // Unsupported protocol version
             }
@@ -381,54 +439,41 @@ public enum Protocol
                 throw new BadPacketException( "Packet with id " + id + " outside of range " );
             }
 
-            Constructor<? extends DefinedPacket> constructor = protocolData.packetConstructors[id];
-            try
-            {
-                return ( constructor == null ) ? null : constructor.newInstance();
-            } catch ( ReflectiveOperationException ex )
-            {
-                throw new BadPacketException( "Could not construct packet with id " + id, ex );
-            }
+            Supplier<? extends DefinedPacket> constructor = packetConstructors[index * ( MAX_PACKET_ID + 1 ) + id];
+            return ( constructor == null ) ? null : constructor.get();
         }
 
-        protected final void registerPacket(Class<? extends DefinedPacket> packetClass, ProtocolMapping ...mappings)
+        protected final void registerPacket(Class<? extends DefinedPacket> packetClass, Supplier<? extends DefinedPacket> constructor, ProtocolMapping ...mappings)
         {
-            try
+            for ( ProtocolMapping mapping : mappings )
             {
-                Constructor<? extends DefinedPacket> constructor = packetClass.getDeclaredConstructor();
-                for ( ProtocolMapping mapping : mappings )
-                {
-                    ProtocolData data = protocols.get( mapping.protocolVersion );
-                    data.packetMap.put( packetClass, mapping.packetID );
-                    data.packetConstructors[mapping.packetID] = constructor;
+                int index = VERSION_INDEX[mapping.protocolVersion];
+                protocols[index].packetMap.put( packetClass, mapping.packetID );
+                packetConstructors[index * ( MAX_PACKET_ID + 1 ) + mapping.packetID] = constructor;
 
-                    if (mapping.inherit)
+                if (mapping.inherit)
+                {
+                    List<Integer> links = linkedProtocols.get( mapping.protocolVersion );
+                    if ( links != null )
                     {
-                        List<Integer> links = linkedProtocols.get( mapping.protocolVersion );
-                        if ( links != null )
+                        links: for ( int link : links )
                         {
-                            links: for ( int link : links )
+                            // Check for manual mappings
+                            for ( ProtocolMapping m : mappings )
                             {
-                                // Check for manual mappings
-                                for ( ProtocolMapping m : mappings )
-                                {
-                                    if ( m == mapping ) continue;
-                                    if ( m.protocolVersion == link ) continue links;
-                                    List<Integer> innerLinks = linkedProtocols.get( m.protocolVersion );
-                                    if ( innerLinks != null && innerLinks.contains( link ) ) continue links;
-                                }
-                                registerPacket( packetClass, map( link, mapping.packetID ) );
+                                if ( m == mapping ) continue;
+                                if ( m.protocolVersion == link ) continue links;
+                                List<Integer> innerLinks = linkedProtocols.get( m.protocolVersion );
+                                if ( innerLinks != null && innerLinks.contains( link ) ) continue links;
                             }
+                            registerPacket( packetClass, constructor, map( link, mapping.packetID ) );
                         }
                     }
                 }
-            } catch ( NoSuchMethodException ex )
-            {
-                throw new BadPacketException( "No NoArgsConstructor for packet class " + packetClass );
             }
         }
 
-        final int getId(Class<? extends DefinedPacket> packet, int version)
+        public final int getId(Class<? extends DefinedPacket> packet, int version)
         {
 
             ProtocolData protocolData = getProtocolData( version );
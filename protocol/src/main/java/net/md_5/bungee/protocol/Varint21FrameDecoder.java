@@ -1,7 +1,6 @@
 package net.md_5.bungee.protocol;
 
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.ByteToMessageDecoder;
 
@@ -15,54 +14,63 @@ public class Varint21FrameDecoder extends ByteToMessageDecoder
     @Override
     protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception
     {
-        in.markReaderIndex();
-
-        final byte[] buf = new byte[ 3 ];
-        for ( int i = 0; i < buf.length; i++ )
+        // Read every complete frame in place, a single read often holds many packets
+        int readerIndex = in.readerIndex();
+        int writerIndex = in.writerIndex();
+        while ( readerIndex < writerIndex )
         {
-            if ( !in.isReadable() )
+            int length = 0;
+            int headerLength = 0;
+            for ( int i = 0; i < 3; i++ )
+            {
+                if ( readerIndex + i >= writerIndex )
+                {
+                    return;
+                }
+
+                byte read = in.getByte( readerIndex + i );
+                length |= ( read & 0x7F ) << ( i * 7 );
+                if ( read >= 0 )
+                {
+                    headerLength = i + 1;
+                    break;
+                }
+            }
+
+            if ( headerLength == 0 )
+            {
+                throw new BadPacketException( "length wider than 21-bit" );
+            }
+            if ( length == 0 )
+            {
+                throw new BadPacketException( "Empty Packet!" );
+            }
+
+            int frameIndex = readerIndex + headerLength;
+            if ( writerIndex - frameIndex < length )
             {
-                in.resetReaderIndex();
                 return;
             }
 
-            buf[i] = in.readByte();
-            if ( buf[i] >= 0 )
+            if ( in.hasMemoryAddress() )
             {
-                int length = DefinedPacket.readVarInt( Unpooled.wrappedBuffer( buf ) );
-                if ( length == 0 )
+                out.add( in.retainedSlice( frameIndex, length ) );
+            } else
+            {
+                if ( !DIRECT_WARNING )
                 {
-                    throw new BadPacketException( "Empty Packet!" );
+                    DIRECT_WARNING = true;
+                    System.out.println( "Netty is not using direct IO buffers." );
                 }
 
-                if ( in.readableBytes() < length )
-                {
-                    in.resetReaderIndex();
-                    return;
-                } else
-                {
-                    if ( in.hasMemoryAddress() )
-                    {
-                        out.add( in.slice( in.readerIndex(), length ).retain() );
-                        in.skipBytes( length );
-                    } else
-                    {
-                        if ( !DIRECT_WARNING )
-                        {
-                            DIRECT_WARNING = true;
-                            System.out.println( "Netty is not using direct IO buffers." );
-                        }
-
-                        // See https://github.com/SpigotMC/BungeeCord/issues/1717
-                        ByteBuf dst = ctx.alloc().directBuffer( length );
-                        in.readBytes( dst );
-                        out.add( dst );
-                    }
-                    return;
-                }
+                // See https://github.com/SpigotMC/BungeeCord/issues/1717
+                ByteBuf dst = ctx.alloc().directBuffer( length );
+                in.getBytes( frameIndex, dst, length );
+                out.add( dst );
             }
-        }
 
-        throw new BadPacketException( "length wider than 21-bit" );
+            readerIndex = frameIndex + length;
+            in.readerIndex( readerIndex );
+        }
     }
 }
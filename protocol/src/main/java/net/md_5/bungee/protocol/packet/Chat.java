@@ -44,6 +44,19 @@ public class Chat extends DefinedPacket
         }
     }
 
+    @Override
+    public int expectedSize(ProtocolConstants.Direction direction, int protocolVersion)
+    {
+        return stringSize( message ) + 1;
+    }
+
+    @Override
+    protected void reset()
+    {
+        message = null;
+        position = 0;
+    }
+
     @Override
     public void handle(AbstractPacketHandler handler) throws Exception
     {
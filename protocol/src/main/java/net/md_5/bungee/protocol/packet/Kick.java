@@ -7,6 +7,7 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import net.md_5.bungee.protocol.AbstractPacketHandler;
+import net.md_5.bungee.protocol.ProtocolConstants;
 
 @Data
 @NoArgsConstructor
@@ -29,6 +30,12 @@ public class Kick extends DefinedPacket
         writeString( message, buf );
     }
 
+    @Override
+    public int expectedSize(ProtocolConstants.Direction direction, int protocolVersion)
+    {
+        return stringSize( message );
+    }
+
     @Override
     public void handle(AbstractPacketHandler handler) throws Exception
     {
@@ -34,6 +34,12 @@ public class PlayerListHeaderFooter extends DefinedPacket
         writeString( footer, buf );
     }
 
+    @Override
+    public int expectedSize(ProtocolConstants.Direction direction, int protocolVersion)
+    {
+        return stringSize( header ) + stringSize( footer );
+    }
+
     @Override
     public void handle(AbstractPacketHandler handler) throws Exception
     {
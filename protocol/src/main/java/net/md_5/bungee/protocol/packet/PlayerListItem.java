@@ -143,6 +143,57 @@ public class PlayerListItem extends DefinedPacket
         }
     }
 
+    @Override
+    public int expectedSize(ProtocolConstants.Direction direction, int protocolVersion)
+    {
+        if ( protocolVersion < ProtocolConstants.MINECRAFT_1_8 )
+        {
+            return stringSize( items[0].displayName ) + 3;
+        }
+
+        int size = 10;
+        for ( Item item : items )
+        {
+            size += 16;
+            switch ( action )
+            {
+                case ADD_PLAYER:
+                    size += stringSize( item.username ) + 15;
+                    for ( String[] prop : item.properties )
+                    {
+                        // Skins are a few hundred bytes each
+                        for ( String part : prop )
+                        {
+                            size += stringSize( part );
+                        }
+                        size++;
+                    }
+                    if ( item.displayName != null )
+                    {
+                        size += stringSize( item.displayName );
+                    }
+                    break;
+                case UPDATE_DISPLAY_NAME:
+                    size++;
+                    if ( item.displayName != null )
+                    {
+                        size += stringSize( item.displayName );
+                    }
+                    break;
+                default:
+                    size += 5;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    protected void reset()
+    {
+        action = null;
+        items = null;
+    }
+
     @Override
     public void handle(AbstractPacketHandler handler) throws Exception
     {
@@ -69,6 +69,12 @@ public class PluginMessage extends DefinedPacket
         }
     }
 
+    @Override
+    public int expectedSize(ProtocolConstants.Direction direction, int protocolVersion)
+    {
+        return stringSize( tag ) + 3 + data.length;
+    }
+
     @Override
     public void handle(AbstractPacketHandler handler) throws Exception
     {
@@ -68,6 +68,15 @@ public class ScoreboardScore extends DefinedPacket
         }
     }
 
+    @Override
+    protected void reset()
+    {
+        itemName = null;
+        action = 0;
+        scoreName = null;
+        value = 0;
+    }
+
     @Override
     public void handle(AbstractPacketHandler handler) throws Exception
     {
@@ -8,6 +8,7 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import net.md_5.bungee.protocol.AbstractPacketHandler;
+import net.md_5.bungee.protocol.ProtocolConstants;
 
 @Data
 @NoArgsConstructor
@@ -30,6 +31,17 @@ public class TabCompleteResponse extends DefinedPacket
         writeStringArray( commands, buf );
     }
 
+    @Override
+    public int expectedSize(ProtocolConstants.Direction direction, int protocolVersion)
+    {
+        int size = 5;
+        for ( String command : commands )
+        {
+            size += stringSize( command );
+        }
+        return size;
+    }
+
     @Override
     public void handle(AbstractPacketHandler handler) throws Exception
     {
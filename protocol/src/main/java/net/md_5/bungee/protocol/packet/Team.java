@@ -108,6 +108,48 @@ public class Team extends DefinedPacket
         }
     }
 
+    @Override
+    public int expectedSize(ProtocolConstants.Direction direction, int protocolVersion)
+    {
+        int size = stringSize( name ) + 1;
+        if ( mode == 0 || mode == 2 )
+        {
+            size += stringSize( displayName ) + stringSize( prefix ) + stringSize( suffix ) + 2;
+            if ( protocolVersion >= ProtocolConstants.MINECRAFT_1_8 )
+            {
+                size += stringSize( nameTagVisibility );
+                if ( protocolVersion >= ProtocolConstants.MINECRAFT_1_9 )
+                {
+                    size += stringSize( collisionRule );
+                }
+            }
+        }
+        if ( mode == 0 || mode == 3 || mode == 4 )
+        {
+            size += 5;
+            for ( String player : players )
+            {
+                size += stringSize( player );
+            }
+        }
+        return size;
+    }
+
+    @Override
+    protected void reset()
+    {
+        name = null;
+        mode = 0;
+        displayName = null;
+        prefix = null;
+        suffix = null;
+        nameTagVisibility = null;
+        collisionRule = null;
+        color = 0;
+        friendlyFire = 0;
+        players = null;
+    }
+
     @Override
     public void handle(AbstractPacketHandler handler) throws Exception
     {
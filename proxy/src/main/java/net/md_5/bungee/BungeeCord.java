@@ -76,14 +76,17 @@ import net.md_5.bungee.command.CommandEnd;
 import net.md_5.bungee.command.CommandIP;
 import net.md_5.bungee.command.CommandPerms;
 import net.md_5.bungee.command.CommandReload;
+import net.md_5.bungee.command.CommandTimings;
 import net.md_5.bungee.command.ConsoleCommandSender;
 import net.md_5.bungee.compress.CompressFactory;
 import net.md_5.bungee.conf.Configuration;
 import net.md_5.bungee.conf.YamlConfig;
 import net.md_5.bungee.forge.ForgeConstants;
+import net.md_5.bungee.jni.NativeCode;
 import net.md_5.bungee.log.BungeeLogger;
 import net.md_5.bungee.log.LoggingOutputStream;
 import net.md_5.bungee.module.ModuleManager;
+import net.md_5.bungee.netty.PacketBroadcaster;
 import net.md_5.bungee.netty.PipelineUtils;
 import net.md_5.bungee.protocol.DefinedPacket;
 import net.md_5.bungee.protocol.ProtocolConstants;
@@ -229,20 +232,8 @@ public class BungeeCord extends ProxyServer
 
         if ( !Boolean.getBoolean( "net.md_5.bungee.native.disable" ) )
         {
-            if ( EncryptionUtil.nativeFactory.load() )
-            {
-                logger.info( "Using mbed TLS based native cipher." );
-            } else
-            {
-                logger.info( "Using standard Java JCE cipher." );
-            }
-            if ( CompressFactory.zlib.load() )
-            {
-                logger.info( "Using zlib based native compressor." );
-            } else
-            {
-                logger.info( "Using standard Java compressor." );
-            }
+            loadNative( "cipher", EncryptionUtil.nativeFactory );
+            loadNative( "compressor", CompressFactory.zlib );
         }
 
         pluginManager = new PluginManager( this );
@@ -252,11 +243,36 @@ public class BungeeCord extends ProxyServer
         getPluginManager().registerCommand( null, new CommandEnd() );
         getPluginManager().registerCommand( null, new CommandIP() );
         getPluginManager().registerCommand( null, new CommandBungee() );
+        getPluginManager().registerCommand( null, new CommandTimings() );
         getPluginManager().registerCommand( null, new CommandPerms() );
 
         registerChannel( "BungeeCord" );
     }
 
+    private void loadNative(String kind, NativeCode<?> code)
+    {
+        if ( code.load() )
+        {
+            logger.log( Level.INFO, "Using native {0}: {1}", new Object[]
+            {
+                kind, code.describe()
+            } );
+        } else if ( NativeCode.isSupported() )
+        {
+            // Native code is built for this platform, so this costs throughput
+            logger.log( Level.WARNING, "Native {0} could not be loaded on {1}, using {2}", new Object[]
+            {
+                kind, NativeCode.getPlatform(), code.describe()
+            } );
+        } else
+        {
+            logger.log( Level.INFO, "Using standard {0}: {1}", new Object[]
+            {
+                kind, code.describe()
+            } );
+        }
+    }
+
     /**
      * Start this proxy instance by loading the configuration, plugins and
      * starting the connect thread.
@@ -466,21 +482,25 @@ public class BungeeCord extends ProxyServer
 
     /**
      * Broadcasts a packet to all clients that is connected to this instance.
+     * The packet is encoded and compressed once per protocol version and
+     * compression threshold.
      *
      * @param packet the packet to send
      */
     public void broadcast(DefinedPacket packet)
     {
+        PacketBroadcaster broadcaster = new PacketBroadcaster( packet );
         connectionLock.readLock().lock();
         try
         {
             for ( UserConnection con : connections.values() )
             {
-                con.unsafe().sendPacket( packet );
+                broadcaster.send( con.getCh() );
             }
         } finally
         {
             connectionLock.readLock().unlock();
+            broadcaster.release();
         }
     }
 
@@ -1,9 +1,12 @@
 package net.md_5.bungee.command;
 
+import net.md_5.bungee.EncryptionUtil;
 import net.md_5.bungee.api.ChatColor;
 import net.md_5.bungee.api.CommandSender;
 import net.md_5.bungee.api.ProxyServer;
 import net.md_5.bungee.api.plugin.Command;
+import net.md_5.bungee.compress.CompressFactory;
+import net.md_5.bungee.compress.ZlibPool;
 
 public class CommandBungee extends Command
 {
@@ -18,5 +21,8 @@ public class CommandBungee extends Command
     {
         sender.sendMessage( ChatColor.BLUE + "This server is running " + ProxyServer.getInstance().getName() + " version " + ProxyServer.getInstance().getVersion() + " by md_5" );
         sender.sendMessage( ChatColor.BLUE + "Protocol support for 1.7.x by Zartec, ghac and I9hdkill" );
+        sender.sendMessage( ChatColor.BLUE + "Cipher: " + EncryptionUtil.nativeFactory.getImplementation().getSimpleName() );
+        sender.sendMessage( ChatColor.BLUE + "Compressor: " + CompressFactory.zlib.getImplementation().getSimpleName() );
+        sender.sendMessage( ChatColor.BLUE + "Zlib contexts: " + ZlibPool.getIdle() + " idle, " + ZlibPool.getReused() + " reused, " + ZlibPool.getCreated() + " created, " + ZlibPool.getFreed() + " freed" );
     }
 }
@@ -0,0 +1,129 @@
+package net.md_5.bungee.command;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.md_5.bungee.api.ChatColor;
+import net.md_5.bungee.api.CommandSender;
+import net.md_5.bungee.api.ProxyServer;
+import net.md_5.bungee.api.plugin.Command;
+import net.md_5.bungee.api.plugin.PluginManager;
+import net.md_5.bungee.api.plugin.TimingsEntry;
+import net.md_5.bungee.event.Timing;
+
+public class CommandTimings extends Command
+{
+
+    private static final int REPORT_SIZE = 10;
+    // Exports only go here, so the command cannot overwrite other files
+    private static final File EXPORT_DIRECTORY = new File( "timings" );
+
+    public CommandTimings()
+    {
+        super( "btimings", "bungeecord.command.timings" );
+    }
+
+    @Override
+    public void execute(CommandSender sender, String[] args)
+    {
+        PluginManager pluginManager = ProxyServer.getInstance().getPluginManager();
+        String action = ( args.length == 0 ) ? "report" : args[0].toLowerCase();
+        switch ( action )
+        {
+            case "on":
+                pluginManager.setTimings( true );
+                sender.sendMessage( ChatColor.GREEN + "Timings are now on" );
+                break;
+            case "off":
+                pluginManager.setTimings( false );
+                sender.sendMessage( ChatColor.GREEN + "Timings are now off" );
+                break;
+            case "report":
+                report( sender, pluginManager );
+                break;
+            case "export":
+                export( sender, pluginManager, ( args.length > 1 ) ? args[1] : "timings.csv" );
+                break;
+            default:
+                sender.sendMessage( ChatColor.RED + "Usage: /btimings <on|off|report|export [file]>" );
+        }
+    }
+
+    private void report(CommandSender sender, PluginManager pluginManager)
+    {
+        if ( !pluginManager.isTimings() )
+        {
+            sender.sendMessage( ChatColor.RED + "Timings are off, turn them on with /btimings on" );
+            return;
+        }
+
+        List<TimingsEntry> entries = getSortedTimings( pluginManager );
+        sender.sendMessage( ChatColor.BLUE + "Slowest handlers of the last " + TimeUnit.NANOSECONDS.toSeconds( Timing.WINDOW ) + " seconds, by total time:" );
+        for ( TimingsEntry entry : entries.subList( 0, Math.min( REPORT_SIZE, entries.size() ) ) )
+        {
+            Timing.Snapshot timing = entry.getTiming();
+            sender.sendMessage( ChatColor.BLUE + entry.getPlugin() + " " + entry.getName() + " " + ChatColor.GRAY + entry.getHandler() );
+            sender.sendMessage( ChatColor.GRAY + "  " + timing.getCount() + " calls, total " + millis( timing.getTotal() )
+                    + ", avg " + millis( timing.getTotal() / timing.getCount() ) + ", p95 " + millis( timing.percentile( 0.95 ) )
+                    + ", p99 " + millis( timing.percentile( 0.99 ) ) + ", max " + millis( timing.getMax() ) );
+        }
+    }
+
+    private void export(CommandSender sender, PluginManager pluginManager, String fileName)
+    {
+        if ( fileName.isEmpty() || fileName.contains( "/" ) || fileName.contains( "\\" ) || fileName.contains( ":" ) || fileName.contains( ".." ) )
+        {
+            sender.sendMessage( ChatColor.RED + "Timings are exported to the timings folder, the file name must not contain a path" );
+            return;
+        }
+        EXPORT_DIRECTORY.mkdir();
+        File file = new File( EXPORT_DIRECTORY, fileName );
+        try ( PrintWriter writer = new PrintWriter( file, StandardCharsets.UTF_8.name() ) )
+        {
+            writer.println( "plugin,name,handler,count,total_ns,avg_ns,p95_ns,p99_ns,max_ns" );
+            for ( TimingsEntry entry : getSortedTimings( pluginManager ) )
+            {
+                Timing.Snapshot timing = entry.getTiming();
+                writer.println( entry.getPlugin() + "," + entry.getName() + "," + entry.getHandler() + "," + timing.getCount() + "," + timing.getTotal()
+                        + "," + timing.getTotal() / timing.getCount() + "," + timing.percentile( 0.95 ) + "," + timing.percentile( 0.99 ) + "," + timing.getMax() );
+            }
+        } catch ( IOException ex )
+        {
+            sender.sendMessage( ChatColor.RED + "Could not write timings to " + file + ": " + ex.getMessage() );
+            return;
+        }
+        sender.sendMessage( ChatColor.GREEN + "Wrote timings to " + file.getAbsolutePath() );
+    }
+
+    private static List<TimingsEntry> getSortedTimings(PluginManager pluginManager)
+    {
+        List<TimingsEntry> entries = pluginManager.getTimings();
+        // Handlers without calls in the window have nothing to report
+        for ( int i = entries.size() - 1; i >= 0; i-- )
+        {
+            if ( entries.get( i ).getTiming().getCount() == 0 )
+            {
+                entries.remove( i );
+            }
+        }
+        Collections.sort( entries, new Comparator<TimingsEntry>()
+        {
+            @Override
+            public int compare(TimingsEntry o1, TimingsEntry o2)
+            {
+                return Long.compare( o2.getTiming().getTotal(), o1.getTiming().getTotal() );
+            }
+        } );
+        return entries;
+    }
+
+    private static String millis(long nanos)
+    {
+        return String.format( "%.2fms", nanos / 1e6 );
+    }
+}
@@ -3,10 +3,15 @@ package net.md_5.bungee.compress;
 import net.md_5.bungee.jni.NativeCode;
 import net.md_5.bungee.jni.zlib.BungeeZlib;
 import net.md_5.bungee.jni.zlib.JavaZlib;
+import net.md_5.bungee.jni.zlib.LibdeflateZlib;
 import net.md_5.bungee.jni.zlib.NativeZlib;
 
 public class CompressFactory
 {
 
-    public static final NativeCode<BungeeZlib> zlib = new NativeCode( "native-compress", JavaZlib.class, NativeZlib.class );
+    private static final NativeCode<BungeeZlib> nativeZlib = new NativeCode( "native-compress", JavaZlib.class, NativeZlib.class );
+    /**
+     * Prefers libdeflate, then native zlib, then Java.
+     */
+    public static final NativeCode<BungeeZlib> zlib = ( Boolean.getBoolean( "net.md_5.bungee.libdeflate.disable" ) ) ? nativeZlib : new NativeCode( "native-libdeflate", nativeZlib, LibdeflateZlib.class );
 }
@@ -0,0 +1,117 @@
+package net.md_5.bungee.compress;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Deflater;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Picks the zlib level and the compression threshold of a connection from its
+ * round trip time, its outbound traffic and the load of its IO thread. The
+ * {@link PacketCompressor} of the connection asks again about once a second.
+ * <p>
+ * The threshold given to the policy is the one announced to the client, which
+ * rejects compressed packets below it. Packets at or above it may always be
+ * sent uncompressed though, so the policy only ever raises it.
+ */
+@Getter
+@RequiredArgsConstructor
+public class CompressionPolicy
+{
+
+    public static final CompressionPolicy DEFAULT = new CompressionPolicy(
+            Integer.getInteger( "net.md_5.bungee.compression.lan_rtt", 5 ),
+            Integer.getInteger( "net.md_5.bungee.compression.slow_rtt", 200 ),
+            Integer.getInteger( "net.md_5.bungee.compression.burst_rate", 1 << 20 ),
+            Integer.getInteger( "net.md_5.bungee.compression.busy_load", 75 ) / 100D,
+            Integer.getInteger( "net.md_5.bungee.compression.relaxed_threshold", 1024 )
+    );
+    // Totals over every connection using a policy
+    private static final LongAdder bytesIn = new LongAdder();
+    private static final LongAdder bytesOut = new LongAdder();
+    //
+    /**
+     * Round trip time in ms up to which a client is treated as being on the
+     * local network.
+     */
+    private final int lanRtt;
+    /**
+     * Round trip time in ms from which a client is treated as being on a slow
+     * link.
+     */
+    private final int slowRtt;
+    /**
+     * Uncompressed bytes per second from which a connection is treated as
+     * receiving a burst, such as chunks while loading a world.
+     */
+    private final int burstRate;
+    /**
+     * Share of CPU time of the IO thread from which it is treated as busy.
+     */
+    private final double busyLoad;
+    /**
+     * Threshold used while compressing small packets is not worth it.
+     */
+    private final int relaxedThreshold;
+
+    /**
+     * Picks the zlib level for a connection.
+     *
+     * @param rtt the round trip time in ms, -1 if unknown
+     * @param bytesPerSecond uncompressed bytes sent per second recently
+     * @param load share of CPU time the IO thread used recently
+     * @param congested whether the outbound buffer of the connection is full
+     * @return the zlib level to use
+     */
+    public int level(int rtt, long bytesPerSecond, double load, boolean congested)
+    {
+        if ( load >= busyLoad || bytesPerSecond >= burstRate || isLan( rtt ) )
+        {
+            return Deflater.BEST_SPEED;
+        }
+        if ( congested || rtt >= slowRtt )
+        {
+            return Deflater.BEST_COMPRESSION;
+        }
+        return Deflater.DEFAULT_COMPRESSION;
+    }
+
+    /**
+     * Picks the compression threshold for a connection.
+     *
+     * @param announced the threshold announced to the client
+     * @param rtt the round trip time in ms, -1 if unknown
+     * @param load share of CPU time the IO thread used recently
+     * @return the threshold to use, never below the announced one
+     */
+    public int threshold(int announced, int rtt, double load)
+    {
+        if ( load >= busyLoad || isLan( rtt ) )
+        {
+            return Math.max( announced, relaxedThreshold );
+        }
+        return announced;
+    }
+
+    private boolean isLan(int rtt)
+    {
+        return rtt >= 0 && rtt <= lanRtt;
+    }
+
+    static void record(long uncompressed, long compressed)
+    {
+        bytesIn.add( uncompressed );
+        bytesOut.add( compressed );
+    }
+
+    /**
+     * Gets the number of bytes compression saved over every connection, not
+     * counting the data length prefixes.
+     *
+     * @return bytes saved so far
+     */
+    public static long getBytesSaved()
+    {
+        return bytesIn.sum() - bytesOut.sum();
+    }
+}
@@ -3,32 +3,183 @@ package net.md_5.bungee.compress;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToByteEncoder;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
 import java.util.zip.Deflater;
+import lombok.Getter;
 import lombok.Setter;
 import net.md_5.bungee.jni.zlib.BungeeZlib;
+import net.md_5.bungee.jni.zlib.JavaZlib;
 import net.md_5.bungee.protocol.DefinedPacket;
 
 public class PacketCompressor extends MessageToByteEncoder<ByteBuf>
 {
 
-    private final BungeeZlib zlib = CompressFactory.zlib.newInstance();
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final boolean CPU_TIME = THREADS.isCurrentThreadCpuTimeSupported();
+    private static final long WINDOW = TimeUnit.SECONDS.toNanos( 1 );
+    //
+    private BungeeZlib zlib;
+    // Cleared if compressing failed, so the context is not pooled
+    private boolean reusable = true;
+    /**
+     * The threshold announced to the other side.
+     */
     @Setter
     private int threshold = 256;
+    /**
+     * Adjusts level and threshold as the connection goes, null to always use
+     * the announced threshold and the default level.
+     */
+    @Setter
+    private CompressionPolicy policy;
+    /**
+     * Round trip time in ms, -1 if unknown.
+     */
+    @Setter
+    private volatile int rtt = -1;
+    @Getter
+    private int level = Deflater.DEFAULT_COMPRESSION;
+    private int effectiveThreshold = -1;
+    // Current measuring window
+    private long windowStart;
+    private long windowCpuTime;
+    private long windowBytes;
+    // Totals, only written from the event loop
+    @Getter
+    private volatile long bytesIn;
+    @Getter
+    private volatile long bytesOut;
 
     @Override
     public void handlerAdded(ChannelHandlerContext ctx) throws Exception
     {
-        zlib.init( true, Deflater.DEFAULT_COMPRESSION );
+        zlib = ZlibPool.acquire( true, level );
     }
 
     @Override
     public void handlerRemoved(ChannelHandlerContext ctx) throws Exception
     {
-        zlib.free();
+        ZlibPool.release( zlib, true, level, reusable );
+        zlib = null;
+    }
+
+    @Override
+    protected ByteBuf allocateBuffer(ChannelHandlerContext ctx, ByteBuf msg, boolean preferDirect) throws Exception
+    {
+        // JavaZlib deflates straight into heap buffers, the frame prepender copies either way
+        return super.allocateBuffer( ctx, msg, preferDirect && !( zlib instanceof JavaZlib ) );
     }
 
     @Override
     protected void encode(ChannelHandlerContext ctx, ByteBuf msg, ByteBuf out) throws Exception
+    {
+        try
+        {
+            encode0( ctx, msg, out );
+        } catch ( Exception ex )
+        {
+            reusable = false;
+            throw ex;
+        }
+    }
+
+    private void encode0(ChannelHandlerContext ctx, ByteBuf msg, ByteBuf out) throws Exception
+    {
+        if ( policy == null )
+        {
+            compress( zlib, threshold, msg, out );
+            return;
+        }
+
+        int origSize = msg.readableBytes();
+        adapt( ctx, origSize );
+
+        int start = out.writerIndex();
+        compress( zlib, Math.max( threshold, effectiveThreshold ), msg, out );
+
+        int size = out.writerIndex() - start;
+        bytesIn += origSize;
+        bytesOut += size;
+        CompressionPolicy.record( origSize, size );
+    }
+
+    /**
+     * Gets the threshold packets are currently compressed from, which a
+     * policy may have raised above the announced one. Read from other threads
+     * it may be slightly out of date, which is harmless as any threshold at
+     * or above the announced one is valid.
+     *
+     * @return the threshold in use
+     */
+    public int getEffectiveThreshold()
+    {
+        return ( policy != null && effectiveThreshold != -1 ) ? Math.max( threshold, effectiveThreshold ) : threshold;
+    }
+
+    /**
+     * Counts a packet compressed elsewhere for this connection, such as a
+     * broadcast, towards the bytes saved over every connection.
+     *
+     * @param origSize the size before compression
+     * @param size the size after compression
+     */
+    public void record(int origSize, int size)
+    {
+        if ( policy != null )
+        {
+            CompressionPolicy.record( origSize, size );
+        }
+    }
+
+    /**
+     * Asks the policy again once the current window has passed.
+     */
+    private void adapt(ChannelHandlerContext ctx, int size)
+    {
+        long now = System.nanoTime();
+        windowBytes += size;
+        if ( effectiveThreshold != -1 && now - windowStart < WINDOW )
+        {
+            return;
+        }
+
+        long elapsed = now - windowStart;
+        long cpuTime = ( CPU_TIME ) ? THREADS.getCurrentThreadCpuTime() : -1;
+        double load = 0;
+        long bytesPerSecond = 0;
+        if ( effectiveThreshold != -1 )
+        {
+            if ( cpuTime != -1 && windowCpuTime != -1 )
+            {
+                load = (double) ( cpuTime - windowCpuTime ) / elapsed;
+            }
+            bytesPerSecond = windowBytes * WINDOW / elapsed;
+        }
+
+        int rtt = this.rtt;
+        int newLevel = policy.level( rtt, bytesPerSecond, load, !ctx.channel().isWritable() );
+        if ( newLevel != level )
+        {
+            // Every packet is a zlib stream of its own, so the level may change between them
+            ZlibPool.release( zlib, true, level, true );
+            zlib = ZlibPool.acquire( true, newLevel );
+            level = newLevel;
+        }
+        effectiveThreshold = policy.threshold( threshold, rtt, load );
+
+        windowStart = now;
+        windowCpuTime = cpuTime;
+        windowBytes = 0;
+    }
+
+    /**
+     * Writes the data length and the packet, deflated by the given zlib if it
+     * reaches the threshold.
+     */
+    public static void compress(BungeeZlib zlib, int threshold, ByteBuf msg, ByteBuf out) throws DataFormatException
     {
         int origSize = msg.readableBytes();
         if ( origSize < threshold )
@@ -6,28 +6,52 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToMessageDecoder;
 import java.util.List;
 import net.md_5.bungee.jni.zlib.BungeeZlib;
+import net.md_5.bungee.jni.zlib.JavaZlib;
 import net.md_5.bungee.protocol.DefinedPacket;
+import net.md_5.bungee.protocol.InflatedPacket;
 
 public class PacketDecompressor extends MessageToMessageDecoder<ByteBuf>
 {
 
-    private final BungeeZlib zlib = CompressFactory.zlib.newInstance();
+    // Same limit as vanilla
+    private static final int MAX_SIZE = 1 << 21;
+    //
+    private BungeeZlib zlib;
+    // Cleared if inflating failed, so the context is not pooled
+    private boolean reusable = true;
+    /**
+     * Keep compressed frames alongside the inflated packets, so they can be
+     * forwarded without compressing them again.
+     */
+    private final boolean keepCompressed;
+
+    public PacketDecompressor()
+    {
+        this( false );
+    }
+
+    public PacketDecompressor(boolean keepCompressed)
+    {
+        this.keepCompressed = keepCompressed;
+    }
 
     @Override
     public void handlerAdded(ChannelHandlerContext ctx) throws Exception
     {
-        zlib.init( false, 0 );
+        zlib = ZlibPool.acquire( false, 0 );
     }
 
     @Override
     public void handlerRemoved(ChannelHandlerContext ctx) throws Exception
     {
-        zlib.free();
+        ZlibPool.release( zlib, false, 0, reusable );
+        zlib = null;
     }
 
     @Override
     protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception
     {
+        int frameIndex = in.readerIndex();
         int size = DefinedPacket.readVarInt( in );
         if ( size == 0 )
         {
@@ -35,14 +59,25 @@ public class PacketDecompressor extends MessageToMessageDecoder<ByteBuf>
             in.skipBytes( in.readableBytes() );
         } else
         {
-            ByteBuf decompressed = ctx.alloc().directBuffer();
+            Preconditions.checkArgument( size <= MAX_SIZE, "Decompressed packet size of %s is larger than the maximum of %s", size, MAX_SIZE );
+            // JavaZlib inflates straight into heap buffers, the native ones need direct ones of the announced size
+            ByteBuf decompressed = ( zlib instanceof JavaZlib ) ? ctx.alloc().heapBuffer() : ctx.alloc().directBuffer( size );
 
             try
             {
+                reusable = false; // Until the context is known to be reset
                 zlib.process( in, decompressed );
+                reusable = true;
                 Preconditions.checkState( decompressed.readableBytes() == size, "Decompressed packet size mismatch" );
 
-                out.add( decompressed );
+                if ( keepCompressed )
+                {
+                    // Not retainedSlice, see EntityMap.replace
+                    out.add( new InflatedPacket( decompressed, in.slice( frameIndex, in.writerIndex() - frameIndex ).retain() ) );
+                } else
+                {
+                    out.add( decompressed );
+                }
                 decompressed = null;
             } finally
             {
@@ -0,0 +1,193 @@
+package net.md_5.bungee.compress;
+
+import io.netty.util.concurrent.FastThreadLocal;
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.LongAdder;
+import net.md_5.bungee.jni.zlib.BungeeZlib;
+
+/**
+ * Keeps initialized zlib contexts of closed connections for new ones on the
+ * same IO thread. Every packet is a zlib stream of its own and each
+ * {@link BungeeZlib#process} leaves the context reset, so a context can move
+ * between connections without being freed and allocated again.
+ * <p>
+ * Not thread safe, each thread has a pool of its own.
+ */
+public final class ZlibPool
+{
+
+    /**
+     * Idle contexts kept per thread, contexts released beyond that are freed.
+     */
+    public static final int CAPACITY = Integer.getInteger( "net.md_5.bungee.zlib_pool.capacity", 64 );
+    private static final FastThreadLocal<ZlibPool> POOLS = new FastThreadLocal<ZlibPool>()
+    {
+        @Override
+        protected ZlibPool initialValue() throws Exception
+        {
+            return new ZlibPool();
+        }
+
+        @Override
+        protected void onRemoval(ZlibPool pool) throws Exception
+        {
+            pool.clear();
+        }
+    };
+    // Totals over every thread
+    private static final LongAdder created = new LongAdder();
+    private static final LongAdder reused = new LongAdder();
+    private static final LongAdder freed = new LongAdder();
+    private static final LongAdder idle = new LongAdder();
+    //
+    // Inflaters at 0, deflaters of level n at n + 2
+    @SuppressWarnings("unchecked")
+    private final ArrayDeque<BungeeZlib>[] contexts = new ArrayDeque[ 12 ];
+    private int size;
+
+    private ZlibPool()
+    {
+        for ( int i = 0; i < contexts.length; i++ )
+        {
+            contexts[i] = new ArrayDeque<>();
+        }
+    }
+
+    /**
+     * Gets an initialized context from the pool of the current thread, or a
+     * new one if it has none.
+     *
+     * @param compress whether to deflate rather than inflate
+     * @param level the zlib level, ignored when inflating
+     * @return the context, to be given back with {@link #release}
+     */
+    public static BungeeZlib acquire(boolean compress, int level)
+    {
+        BungeeZlib zlib = POOLS.get().poll( index( compress, level ) );
+        if ( zlib != null )
+        {
+            reused.increment();
+            return zlib;
+        }
+
+        zlib = CompressFactory.zlib.newInstance();
+        zlib.init( compress, level );
+        created.increment();
+        return zlib;
+    }
+
+    /**
+     * Gives a context back to the pool of the current thread, or frees it if
+     * the pool is full.
+     *
+     * @param zlib the context from {@link #acquire}
+     * @param compress whether it deflates
+     * @param level the level it was acquired with
+     * @param reusable false if processing failed and left the context in an
+     * unknown state
+     */
+    public static void release(BungeeZlib zlib, boolean compress, int level, boolean reusable)
+    {
+        if ( !reusable || !POOLS.get().offer( index( compress, level ), zlib ) )
+        {
+            zlib.free();
+            freed.increment();
+        }
+    }
+
+    private static int index(boolean compress, int level)
+    {
+        if ( !compress )
+        {
+            return 0;
+        }
+        // Levels beyond zlib's are not pooled
+        return ( level >= -1 && level <= 9 ) ? level + 2 : -1;
+    }
+
+    private BungeeZlib poll(int index)
+    {
+        if ( index == -1 )
+        {
+            return null;
+        }
+
+        BungeeZlib zlib = contexts[index].poll();
+        if ( zlib != null )
+        {
+            size--;
+            idle.decrement();
+        }
+        return zlib;
+    }
+
+    private boolean offer(int index, BungeeZlib zlib)
+    {
+        if ( index == -1 || size >= CAPACITY )
+        {
+            return false;
+        }
+        contexts[index].push( zlib );
+        size++;
+        idle.increment();
+        return true;
+    }
+
+    private void clear()
+    {
+        for ( ArrayDeque<BungeeZlib> queue : contexts )
+        {
+            BungeeZlib zlib;
+            while ( ( zlib = queue.poll() ) != null )
+            {
+                zlib.free();
+                freed.increment();
+                idle.decrement();
+            }
+        }
+        size = 0;
+    }
+
+    /**
+     * Gets the number of contexts allocated because no pool had a fitting
+     * one.
+     *
+     * @return contexts created so far
+     */
+    public static long getCreated()
+    {
+        return created.sum();
+    }
+
+    /**
+     * Gets the number of contexts handed out again instead of creating new
+     * ones.
+     *
+     * @return contexts reused so far
+     */
+    public static long getReused()
+    {
+        return reused.sum();
+    }
+
+    /**
+     * Gets the number of contexts freed, because a pool was full or they
+     * could not be reused.
+     *
+     * @return contexts freed so far
+     */
+    public static long getFreed()
+    {
+        return freed.sum();
+    }
+
+    /**
+     * Gets the number of contexts currently waiting in the pools.
+     *
+     * @return idle contexts over every thread
+     */
+    public static long getIdle()
+    {
+        return idle.sum();
+    }
+}
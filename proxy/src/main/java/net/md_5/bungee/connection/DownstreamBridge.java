@@ -98,10 +98,23 @@ public class DownstreamBridge extends PacketHandler
     @Override
     public void handle(PacketWrapper packet) throws Exception
     {
-        con.getEntityRewrite().rewriteClientbound(packet.buf, con.getServerEntityId(), con.getClientEntityId());
+        if ( packet.compressed != null && !canForwardCompressed( packet ) )
+        {
+            packet.releaseCompressed();
+        }
+        packet.buf = con.getEntityRewrite().rewriteClientbound( packet.buf, con.getServerEntityId(), con.getClientEntityId() );
         con.sendPacket(packet);
     }
     
+    private boolean canForwardCompressed(PacketWrapper packet)
+    {
+        // Clients reject compressed packets below their threshold, but the
+        // backend only compresses packets at or above its own
+        int threshold = con.getCh().getCompressionThreshold();
+        return threshold != -1 && server.getCh().getCompressionThreshold() >= threshold
+                && !con.getEntityRewrite().rewritesClientbound( packet.buf, con.getServerEntityId(), con.getClientEntityId() );
+    }
+    
     @Override
     public void handle(KeepAlive alive) throws Exception
     {
@@ -221,10 +234,14 @@ public class DownstreamBridge extends PacketHandler
     public void handle(PluginMessage pluginMessage) throws Exception
     {
         DataInput in = pluginMessage.getStream();
-        PluginMessageEvent event = new PluginMessageEvent(con.getServer(), con, pluginMessage.getTag(), pluginMessage.getData().clone());
-        
-        if (bungee.getPluginManager().callEvent(event).isCancelled())
-            throw CancelSendSignal.INSTANCE;
+        // Spares copying the data when nobody listens
+        if (bungee.getPluginManager().hasListeners(PluginMessageEvent.class))
+        {
+            PluginMessageEvent event = new PluginMessageEvent(con.getServer(), con, pluginMessage.getTag(), pluginMessage.getData().clone());
+
+            if (bungee.getPluginManager().callEvent(event).isCancelled())
+                throw CancelSendSignal.INSTANCE;
+        }
         
         if (pluginMessage.getTag().equals("MC|Brand"))
         {
@@ -2,11 +2,14 @@ package net.md_5.bungee.connection;
 
 import com.google.common.base.Preconditions;
 import io.netty.channel.Channel;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
 import net.md_5.bungee.BungeeCord;
 import net.md_5.bungee.UserConnection;
 import net.md_5.bungee.Util;
+import net.md_5.bungee.api.Callback;
 import net.md_5.bungee.api.ProxyServer;
 import net.md_5.bungee.api.connection.ProxiedPlayer;
 import net.md_5.bungee.api.event.ChatEvent;
@@ -29,8 +32,17 @@ import net.md_5.bungee.protocol.packet.TabCompleteResponse;
 public class UpstreamBridge extends PacketHandler
 {
 
+    /**
+     * Chat messages of one player waiting for the listeners of an earlier
+     * one, set by the net.md_5.bungee.max_pending_chat property.
+     */
+    private static final int MAX_PENDING_CHAT = Integer.getInteger( "net.md_5.bungee.max_pending_chat", 32 );
+    //
     private final ProxyServer bungee;
     private final UserConnection con;
+    // Chat arriving while async listeners handle an earlier message, so messages keep their order
+    private final Queue<String> pendingChat = new ArrayDeque<>();
+    private boolean chatPending;
 
     public UpstreamBridge(ProxyServer bungee, UserConnection con)
     {
@@ -111,7 +123,7 @@ public class UpstreamBridge extends PacketHandler
     {
         if ( con.getServer() != null )
         {
-            con.getEntityRewrite().rewriteServerbound( packet.buf, con.getClientEntityId(), con.getServerEntityId() );
+            packet.buf = con.getEntityRewrite().rewriteServerbound( packet.buf, con.getClientEntityId(), con.getServerEntityId() );
             con.getServer().getCh().write( packet );
         }
     }
@@ -124,6 +136,7 @@ public class UpstreamBridge extends PacketHandler
             int newPing = (int) ( System.currentTimeMillis() - con.getSentPingTime() );
             con.getTabListHandler().onPingChange( newPing );
             con.setPing( newPing );
+            con.getCh().setRtt( newPing );
         } else
         {
             throw CancelSendSignal.INSTANCE;
@@ -136,18 +149,79 @@ public class UpstreamBridge extends PacketHandler
         int maxLength = ( con.getPendingConnection().getVersion() >= ProtocolConstants.MINECRAFT_1_11 ) ? 256 : 100;
         Preconditions.checkArgument( chat.getMessage().length() <= maxLength, "Chat message too long" ); // Mojang limit, check on updates
 
-        ChatEvent chatEvent = new ChatEvent( con, con.getServer(), chat.getMessage() );
-        if ( !bungee.getPluginManager().callEvent( chatEvent ).isCancelled() )
+        if ( chatPending )
         {
-            chat.setMessage( chatEvent.getMessage() );
-            if ( !chatEvent.isCommand() || !bungee.getPluginManager().dispatchCommand( con, chat.getMessage().substring( 1 ) ) )
+            if ( pendingChat.size() >= MAX_PENDING_CHAT )
             {
-                con.getServer().unsafe().sendPacket( chat );
+                // Listeners can't keep up, don't buffer whatever the client sends
+                pendingChat.clear();
+                con.disconnect( bungee.getTranslation( "chat_spam" ) );
+                throw CancelSendSignal.INSTANCE;
             }
+            // The packet goes back to its pool once this returns
+            pendingChat.add( chat.getMessage() );
+        } else
+        {
+            handleChat( chat );
         }
         throw CancelSendSignal.INSTANCE;
     }
 
+    private void handleChat(Chat chat)
+    {
+        if ( !bungee.getPluginManager().hasListeners( ChatEvent.class ) )
+        {
+            // Same as below with nobody to change or cancel the message
+            if ( !chat.getMessage().startsWith( "/" ) || !bungee.getPluginManager().dispatchCommand( con, chat.getMessage().substring( 1 ) ) )
+            {
+                con.getServer().unsafe().sendPacket( chat );
+            }
+            return;
+        }
+
+        ChatEvent chatEvent = new ChatEvent( con, con.getServer(), chat.getMessage() );
+        // Async listeners may still be running when this returns, the callback then runs on our event loop
+        chatPending = !bungee.getPluginManager().callEvent( chatEvent, con.getCh().getHandle().eventLoop(), new Callback<ChatEvent>()
+        {
+            @Override
+            public void done(ChatEvent result, Throwable error)
+            {
+                boolean resumed = chatPending;
+                if ( !result.isCancelled() && canSendChat() )
+                {
+                    // Not the received packet, which may have been reused by now
+                    if ( !result.isCommand() || !bungee.getPluginManager().dispatchCommand( con, result.getMessage().substring( 1 ) ) )
+                    {
+                        con.getServer().unsafe().sendPacket( new Chat( result.getMessage() ) );
+                    }
+                }
+                if ( resumed )
+                {
+                    resumeChat();
+                }
+            }
+        } );
+    }
+
+    private void resumeChat()
+    {
+        chatPending = false;
+        String message;
+        while ( !chatPending && ( message = pendingChat.poll() ) != null )
+        {
+            // The player may have switched servers or left in the meantime
+            if ( canSendChat() )
+            {
+                handleChat( new Chat( message ) );
+            }
+        }
+    }
+
+    private boolean canSendChat()
+    {
+        return !con.getCh().isClosed() && con.getServer() != null;
+    }
+
     @Override
     public void handle(TabCompleteRequest tabComplete) throws Exception
     {
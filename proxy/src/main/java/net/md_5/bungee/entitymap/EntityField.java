@@ -0,0 +1,307 @@
+package net.md_5.bungee.entitymap;
+
+import io.netty.buffer.ByteBuf;
+import java.util.UUID;
+import lombok.Getter;
+import net.md_5.bungee.BungeeCord;
+import net.md_5.bungee.UserConnection;
+import net.md_5.bungee.api.connection.ProxiedPlayer;
+import net.md_5.bungee.connection.LoginResult;
+import net.md_5.bungee.protocol.DefinedPacket;
+
+/**
+ * The kinds of fields which may hold an entity ID. A packet's rewrite is
+ * described as the sequence of these fields up to its last entity ID.
+ */
+enum EntityField implements EntityRewrite
+{
+
+    INT
+    {
+        @Override
+        public ByteBuf rewrite(ByteBuf packet, int oldId, int newId)
+        {
+            EntityMap.rewriteInt( packet, oldId, newId, packet.readerIndex() );
+            packet.skipBytes( 4 );
+            return packet;
+        }
+    },
+    VARINT
+    {
+        @Override
+        public ByteBuf rewrite(ByteBuf packet, int oldId, int newId)
+        {
+            return EntityMap.rewriteVarInt( packet, oldId, newId, packet.readerIndex() );
+        }
+    },
+    /**
+     * A VarInt count followed by that many VarInt IDs.
+     */
+    VARINT_ARRAY
+    {
+        @Override
+        public ByteBuf rewrite(ByteBuf packet, int oldId, int newId)
+        {
+            return EntityMap.rewriteVarIntArray( packet, oldId, newId );
+        }
+    },
+    /**
+     * A byte count followed by that many int IDs, as in the 1.7 Destroy
+     * Entities packet.
+     */
+    INT_ARRAY
+    {
+        @Override
+        public ByteBuf rewrite(ByteBuf packet, int oldId, int newId)
+        {
+            int count = packet.readByte();
+            for ( int i = 0; i < count; i++ )
+            {
+                packet = INT.rewrite( packet, oldId, newId );
+            }
+            return packet;
+        }
+    },
+    /**
+     * Object data of a 1.7 Spawn Object packet, which is followed by velocity
+     * only when non zero.
+     */
+    SPAWN_OBJECT_DATA_1_7
+    {
+        @Override
+        public ByteBuf rewrite(ByteBuf packet, int oldId, int newId)
+        {
+            int type = packet.readUnsignedByte();
+
+            if ( type == 60 || type == 90 )
+            {
+                packet.skipBytes( 14 );
+                int position = packet.readerIndex();
+                int readId = packet.readInt();
+                int changedId = -1;
+                if ( readId == oldId )
+                {
+                    packet.setInt( position, newId );
+                    changedId = newId;
+                } else if ( readId == newId )
+                {
+                    packet.setInt( position, oldId );
+                    changedId = oldId;
+                }
+                if ( changedId != -1 )
+                {
+                    if ( changedId == 0 && readId != 0 )
+                    { // Trim off the extra data
+                        packet.writerIndex( packet.writerIndex() - 6 );
+                    } else if ( changedId != 0 && readId == 0 )
+                    { // Add on the extra data
+                        packet = EntityMap.replace( packet, packet.writerIndex(), 0, packet.alloc().buffer( 6 ).writeZero( 6 ) );
+                    }
+                }
+            }
+            return packet;
+        }
+    },
+    /**
+     * Object data of a 1.8 Spawn Object packet, which is followed by velocity
+     * only when positive.
+     */
+    SPAWN_OBJECT_DATA_1_8
+    {
+        @Override
+        public ByteBuf rewrite(ByteBuf packet, int oldId, int newId)
+        {
+            int type = packet.readUnsignedByte();
+
+            if ( type == 60 || type == 90 )
+            {
+                packet.skipBytes( 14 );
+                int position = packet.readerIndex();
+                int readId = packet.readInt();
+                int changedId = readId;
+
+                if ( readId == oldId )
+                {
+                    packet.setInt( position, changedId = newId );
+                } else if ( readId == newId )
+                {
+                    packet.setInt( position, changedId = oldId );
+                }
+
+                if ( readId > 0 && changedId <= 0 )
+                {
+                    packet.writerIndex( packet.writerIndex() - 6 );
+                } else if ( changedId > 0 && readId <= 0 )
+                {
+                    packet = EntityMap.replace( packet, packet.writerIndex(), 0, packet.alloc().buffer( 6 ).writeZero( 6 ) );
+                }
+            }
+            return packet;
+        }
+    },
+    /**
+     * Object data of a 1.9+ Spawn Object packet. Arrows and fishing hooks
+     * store the shooter's ID plus one.
+     */
+    SPAWN_OBJECT_DATA_1_9
+    {
+        @Override
+        public ByteBuf rewrite(ByteBuf packet, int oldId, int newId)
+        {
+            DefinedPacket.readUUID( packet );
+            int type = packet.readUnsignedByte();
+
+            if ( type == 60 || type == 90 || type == 91 )
+            {
+                if ( type == 60 || type == 91 )
+                {
+                    oldId = oldId + 1;
+                    newId = newId + 1;
+                }
+
+                packet.skipBytes( 26 ); // double, double, double, byte, byte
+                EntityMap.rewriteInt( packet, oldId, newId, packet.readerIndex() );
+            }
+            return packet;
+        }
+    },
+    /**
+     * The UUID of a 1.8+ Spawn Player packet, mapped from a player's offline
+     * UUID to their online one.
+     */
+    SPAWN_PLAYER_UUID( false )
+    {
+        @Override
+        public ByteBuf rewrite(ByteBuf packet, int oldId, int newId)
+        {
+            int position = packet.readerIndex();
+            UUID uuid = DefinedPacket.readUUID( packet );
+            ProxiedPlayer player;
+            if ( ( player = BungeeCord.getInstance().getPlayerByOfflineUUID( uuid ) ) != null )
+            {
+                setUUID( packet, position, player.getUniqueId() );
+            }
+            return packet;
+        }
+    },
+    /**
+     * The profile of a 1.7.6 Spawn Player packet, which gains the player's
+     * properties if the server sent none.
+     */
+    SPAWN_PLAYER_PROFILE( false )
+    {
+        @Override
+        public ByteBuf rewrite(ByteBuf packet, int oldId, int newId)
+        {
+            int profileIndex = packet.readerIndex();
+            DefinedPacket.readString( packet ); // UUID
+            String username = DefinedPacket.readString( packet );
+            int props = DefinedPacket.readVarInt( packet );
+            if ( props == 0 )
+            {
+                UserConnection player = (UserConnection) BungeeCord.getInstance().getPlayer( username );
+                if ( player != null )
+                {
+                    LoginResult profile = player.getPendingConnection().getLoginProfile();
+                    if ( profile != null && profile.getProperties() != null
+                            && profile.getProperties().length >= 1 )
+                    {
+                        ByteBuf rewritten = packet.alloc().buffer();
+                        DefinedPacket.writeString( player.getUniqueId().toString(), rewritten );
+                        DefinedPacket.writeString( username, rewritten );
+                        DefinedPacket.writeVarInt( profile.getProperties().length, rewritten );
+                        for ( LoginResult.Property property : profile.getProperties() )
+                        {
+                            DefinedPacket.writeString( property.getName(), rewritten );
+                            DefinedPacket.writeString( property.getValue(), rewritten );
+                            DefinedPacket.writeString( property.getSignature(), rewritten );
+                        }
+                        packet = EntityMap.replace( packet, profileIndex, packet.readerIndex() - profileIndex, rewritten );
+                    }
+                }
+            }
+            return packet;
+        }
+    },
+    COMBAT_EVENT
+    {
+        @Override
+        public ByteBuf rewrite(ByteBuf packet, int oldId, int newId)
+        {
+            int event = packet.readUnsignedByte();
+            if ( event == 1 /* End Combat*/ )
+            {
+                DefinedPacket.readVarInt( packet );
+                EntityMap.rewriteInt( packet, oldId, newId, packet.readerIndex() );
+            } else if ( event == 2 /* Entity Dead */ )
+            {
+                packet = EntityMap.rewriteVarInt( packet, oldId, newId, packet.readerIndex() );
+                EntityMap.rewriteInt( packet, oldId, newId, packet.readerIndex() );
+            }
+            return packet;
+        }
+    },
+    /**
+     * The target of a Spectate packet, mapped from a player's online UUID to
+     * the offline one the server knows them by.
+     */
+    SPECTATE_UUID( false )
+    {
+        @Override
+        public ByteBuf rewrite(ByteBuf packet, int oldId, int newId)
+        {
+            if ( !BungeeCord.getInstance().getConfig().isIpForward() )
+            {
+                int position = packet.readerIndex();
+                UUID uuid = DefinedPacket.readUUID( packet );
+                ProxiedPlayer player;
+                if ( ( player = BungeeCord.getInstance().getPlayer( uuid ) ) != null )
+                {
+                    setUUID( packet, position, ( (UserConnection) player ).getPendingConnection().getOfflineId() );
+                }
+            }
+            return packet;
+        }
+    };
+    /**
+     * Whether this field holds an entity ID. The remaining fields rewrite
+     * player UUIDs and profiles, so must be applied even when the client and
+     * server use the same entity ID.
+     */
+    @Getter
+    private final boolean entityId;
+
+    private EntityField()
+    {
+        this( true );
+    }
+
+    private EntityField(boolean entityId)
+    {
+        this.entityId = entityId;
+    }
+
+    /**
+     * Entity metadata, rewriting the VarInt held at the given index.
+     *
+     * @param metaIndex the index of the entity ID
+     * @return the metadata rewrite
+     */
+    static EntityRewrite metadata(final int metaIndex)
+    {
+        return new EntityRewrite()
+        {
+            @Override
+            public ByteBuf rewrite(ByteBuf packet, int oldId, int newId)
+            {
+                return EntityMap.rewriteMetaVarInt( packet, oldId, newId, metaIndex );
+            }
+        };
+    }
+
+    private static void setUUID(ByteBuf packet, int offset, UUID uuid)
+    {
+        packet.setLong( offset, uuid.getMostSignificantBits() );
+        packet.setLong( offset + 8, uuid.getLeastSignificantBits() );
+    }
+}
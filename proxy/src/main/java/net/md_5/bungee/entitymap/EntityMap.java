@@ -2,28 +2,39 @@ package net.md_5.bungee.entitymap;
 
 import com.flowpowered.nbt.stream.NBTInputStream;
 import com.google.common.base.Throwables;
-import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.CompositeByteBuf;
 import java.io.IOException;
-import lombok.AccessLevel;
-import lombok.NoArgsConstructor;
 import net.md_5.bungee.protocol.DefinedPacket;
 import net.md_5.bungee.protocol.Protocol;
 import net.md_5.bungee.protocol.ProtocolConstants;
 
 /**
- * Class to rewrite integers within packets.
+ * Class to rewrite integers within packets. Each protocol version has a flat
+ * table from packet ID to the rewrite of that packet, compiled from
+ * {@link EntityMapTable}, so packets without entity IDs cost a single lookup.
  */
-@NoArgsConstructor(access = AccessLevel.PACKAGE)
-public abstract class EntityMap
+public final class EntityMap
 {
 
-    private final boolean[] clientboundInts = new boolean[ 256 ];
-    private final boolean[] clientboundVarInts = new boolean[ 256 ];
+    private final EntityRewrite[] clientbound = new EntityRewrite[ 256 ];
+    private final EntityRewrite[] serverbound = new EntityRewrite[ 256 ];
+    // Only the packets which still need rewriting when both sides use the same entity ID
+    private final EntityRewrite[] clientboundIdentity = new EntityRewrite[ 256 ];
+    private final EntityRewrite[] serverboundIdentity = new EntityRewrite[ 256 ];
 
-    private final boolean[] serverboundInts = new boolean[ 256 ];
-    private final boolean[] serverboundVarInts = new boolean[ 256 ];
+    EntityMap()
+    {
+    }
+
+    EntityMap(EntityMap parent)
+    {
+        System.arraycopy( parent.clientbound, 0, clientbound, 0, clientbound.length );
+        System.arraycopy( parent.serverbound, 0, serverbound, 0, serverbound.length );
+        System.arraycopy( parent.clientboundIdentity, 0, clientboundIdentity, 0, clientboundIdentity.length );
+        System.arraycopy( parent.serverboundIdentity, 0, serverboundIdentity, 0, serverboundIdentity.length );
+    }
 
     // Returns the correct entity map for the protocol version
     public static EntityMap getEntityMap(int version)
@@ -31,62 +42,128 @@ public abstract class EntityMap
         switch ( version )
         {
             case ProtocolConstants.MINECRAFT_1_7_2:
-                return EntityMap_1_7_2.INSTANCE;
+                return EntityMapTable.MINECRAFT_1_7_2;
             case ProtocolConstants.MINECRAFT_1_7_6:
-                return EntityMap_1_7_6.INSTANCE;
+                return EntityMapTable.MINECRAFT_1_7_6;
             case ProtocolConstants.MINECRAFT_1_8:
-                return EntityMap_1_8.INSTANCE;
+                return EntityMapTable.MINECRAFT_1_8;
             case ProtocolConstants.MINECRAFT_1_9:
             case ProtocolConstants.MINECRAFT_1_9_1:
             case ProtocolConstants.MINECRAFT_1_9_2:
-                return EntityMap_1_9.INSTANCE;
+                return EntityMapTable.MINECRAFT_1_9;
             case ProtocolConstants.MINECRAFT_1_9_4:
-                return EntityMap_1_9_4.INSTANCE;
+                return EntityMapTable.MINECRAFT_1_9_4;
             case ProtocolConstants.MINECRAFT_1_10:
-                return EntityMap_1_10.INSTANCE;
+                return EntityMapTable.MINECRAFT_1_10;
             case ProtocolConstants.MINECRAFT_1_11:
             case ProtocolConstants.MINECRAFT_1_11_1:
-                return EntityMap_1_11.INSTANCE;
+                return EntityMapTable.MINECRAFT_1_11;
             case ProtocolConstants.MINECRAFT_1_12:
-                return EntityMap_1_12.INSTANCE;
+                return EntityMapTable.MINECRAFT_1_12;
             case ProtocolConstants.MINECRAFT_1_12_1:
             case ProtocolConstants.MINECRAFT_1_12_2:
-                return EntityMap_1_12_1.INSTANCE;
+                return EntityMapTable.MINECRAFT_1_12_1;
         }
         throw new RuntimeException( "Version " + version + " has no entity map" );
     }
 
-    protected void addRewrite(int id, ProtocolConstants.Direction direction, boolean varint)
+    EntityMap clientbound(int id, EntityRewrite... fields)
+    {
+        clientbound[id] = compile( fields );
+        clientboundIdentity[id] = needsIdentityRewrite( fields ) ? clientbound[id] : null;
+        return this;
+    }
+
+    EntityMap serverbound(int id, EntityRewrite... fields)
+    {
+        serverbound[id] = compile( fields );
+        serverboundIdentity[id] = needsIdentityRewrite( fields ) ? serverbound[id] : null;
+        return this;
+    }
+
+    private static boolean needsIdentityRewrite(EntityRewrite[] fields)
     {
-        if ( direction == ProtocolConstants.Direction.TO_CLIENT )
+        for ( EntityRewrite field : fields )
         {
-            if ( varint )
+            if ( field instanceof EntityField && !( (EntityField) field ).isEntityId() )
             {
-                clientboundVarInts[id] = true;
-            } else
-            {
-                clientboundInts[id] = true;
+                return true;
             }
-        } else if ( varint )
-        {
-            serverboundVarInts[id] = true;
-        } else
+        }
+        return false;
+    }
+
+    private static EntityRewrite compile(final EntityRewrite[] fields)
+    {
+        if ( fields.length == 1 )
         {
-            serverboundInts[id] = true;
+            return fields[0];
         }
+
+        return new EntityRewrite()
+        {
+            @Override
+            public ByteBuf rewrite(ByteBuf packet, int oldId, int newId)
+            {
+                for ( EntityRewrite field : fields )
+                {
+                    packet = field.rewrite( packet, oldId, newId );
+                }
+                return packet;
+            }
+        };
+    }
+
+    /**
+     * Rewrites the entity IDs within a serverbound packet. Fields are changed
+     * in place wherever possible, so the packet may be a slice of the frame it
+     * was read from. If a rewrite changes the length of the packet a composite
+     * buffer is returned instead and the given one is released.
+     * <p>
+     * While both IDs are the same, as they are until the player first
+     * switches server, only player UUIDs and profiles are rewritten.
+     *
+     * @param packet the packet to rewrite
+     * @param oldId the ID used by the client
+     * @param newId the ID used by the server
+     * @return the rewritten packet
+     */
+    public ByteBuf rewriteServerbound(ByteBuf packet, int oldId, int newId)
+    {
+        return rewrite( packet, oldId, newId, ( oldId == newId ) ? serverboundIdentity : serverbound );
     }
 
-    public void rewriteServerbound(ByteBuf packet, int oldId, int newId)
+    /**
+     * Rewrites the entity IDs within a clientbound packet, see
+     * {@link #rewriteServerbound(ByteBuf, int, int)}.
+     *
+     * @param packet the packet to rewrite
+     * @param oldId the ID used by the server
+     * @param newId the ID used by the client
+     * @return the rewritten packet
+     */
+    public ByteBuf rewriteClientbound(ByteBuf packet, int oldId, int newId)
     {
-        rewrite( packet, oldId, newId, serverboundInts, serverboundVarInts );
+        return rewrite( packet, oldId, newId, ( oldId == newId ) ? clientboundIdentity : clientbound );
     }
 
-    public void rewriteClientbound(ByteBuf packet, int oldId, int newId)
+    /**
+     * Gets whether {@link #rewriteClientbound(ByteBuf, int, int)} may change
+     * the given packet.
+     *
+     * @param packet the packet to check
+     * @param oldId the ID used by the server
+     * @param newId the ID used by the client
+     * @return whether the packet may be rewritten
+     */
+    public boolean rewritesClientbound(ByteBuf packet, int oldId, int newId)
     {
-        rewrite( packet, oldId, newId, clientboundInts, clientboundVarInts );
+        EntityRewrite[] rewrites = ( oldId == newId ) ? clientboundIdentity : clientbound;
+        int packetId = DefinedPacket.readVarInt( packet.duplicate() );
+        return packetId >= 0 && packetId < rewrites.length && rewrites[packetId] != null;
     }
 
-    protected static void rewriteInt(ByteBuf packet, int oldId, int newId, int offset)
+    static void rewriteInt(ByteBuf packet, int oldId, int newId, int offset)
     {
         int readId = packet.getInt( offset );
         if ( readId == oldId )
@@ -98,24 +175,83 @@ public abstract class EntityMap
         }
     }
 
-    @SuppressFBWarnings("DLS_DEAD_LOCAL_STORE")
-    protected static void rewriteVarInt(ByteBuf packet, int oldId, int newId, int offset)
+    /**
+     * Rewrites the VarInt at the reader index, which must equal offset. The
+     * reader index is left after the (possibly rewritten) VarInt.
+     */
+    static ByteBuf rewriteVarInt(ByteBuf packet, int oldId, int newId, int offset)
     {
-        // Need to rewrite the packet because VarInts are variable length
         int readId = DefinedPacket.readVarInt( packet );
         int readIdLength = packet.readerIndex() - offset;
         if ( readId == oldId || readId == newId )
         {
-            ByteBuf data = packet.copy();
-            packet.readerIndex( offset );
-            packet.writerIndex( offset );
-            DefinedPacket.writeVarInt( readId == oldId ? newId : oldId, packet );
-            packet.writeBytes( data );
-            data.release();
+            int rewrittenId = ( readId == oldId ) ? newId : oldId;
+            if ( DefinedPacket.varIntSize( rewrittenId ) == readIdLength )
+            {
+                int writerIndex = packet.writerIndex();
+                packet.readerIndex( offset );
+                packet.writerIndex( offset );
+                DefinedPacket.writeVarInt( rewrittenId, packet );
+                packet.writerIndex( writerIndex );
+                packet.readerIndex( offset + readIdLength );
+            } else
+            {
+                // VarInts are variable length, the rest of the packet has to move
+                ByteBuf id = packet.alloc().buffer( 5 );
+                DefinedPacket.writeVarInt( rewrittenId, id );
+                packet = replace( packet, offset, readIdLength, id );
+            }
+        }
+        return packet;
+    }
+
+    /**
+     * Rewrites a VarInt count followed by that many VarInt IDs, starting at the
+     * reader index.
+     */
+    static ByteBuf rewriteVarIntArray(ByteBuf packet, int oldId, int newId)
+    {
+        int count = DefinedPacket.readVarInt( packet );
+        for ( int i = 0; i < count; i++ )
+        {
+            packet = rewriteVarInt( packet, oldId, newId, packet.readerIndex() );
         }
+        return packet;
     }
 
-    protected static void rewriteMetaVarInt(ByteBuf packet, int oldId, int newId, int metaIndex)
+    /**
+     * Replaces length bytes at offset with the readable bytes of replacement,
+     * leaving the reader index after the inserted bytes. Equal length
+     * replacements are done in place, otherwise the packet is released and a
+     * composite of the untouched head and tail around the replacement is
+     * returned so that neither side needs to be copied.
+     */
+    static ByteBuf replace(ByteBuf packet, int offset, int length, ByteBuf replacement)
+    {
+        int replacementLength = replacement.readableBytes();
+        if ( replacementLength == length )
+        {
+            packet.setBytes( offset, replacement, replacement.readerIndex(), length );
+            packet.readerIndex( offset + length );
+            replacement.release();
+            return packet;
+        }
+
+        int tailIndex = offset + length;
+        // Not retainedSlice, Netty 4.1.6 releases the root instead of the parent
+        // when a retained slice of a pooled slice (our decoded packets) is freed
+        CompositeByteBuf rewritten = packet.alloc().compositeDirectBuffer( 3 );
+        rewritten.addComponents( true,
+                packet.slice( 0, offset ).retain(),
+                replacement,
+                packet.slice( tailIndex, packet.writerIndex() - tailIndex ).retain() );
+        rewritten.readerIndex( offset + replacementLength );
+        packet.release();
+
+        return rewritten;
+    }
+
+    static ByteBuf rewriteMetaVarInt(ByteBuf packet, int oldId, int newId, int metaIndex)
     {
         int readerIndex = packet.readerIndex();
 
@@ -132,11 +268,11 @@ public abstract class EntityMap
                 case 1:
                     if ( index == metaIndex )
                     {
-                        int position = packet.readerIndex();
-                        rewriteVarInt( packet, oldId, newId, position );
-                        packet.readerIndex( position );
+                        packet = rewriteVarInt( packet, oldId, newId, packet.readerIndex() );
+                    } else
+                    {
+                        DefinedPacket.readVarInt( packet );
                     }
-                    DefinedPacket.readVarInt( packet );
                     break;
                 case 2:
                     packet.skipBytes( 4 ); // float
@@ -207,25 +343,22 @@ public abstract class EntityMap
         }
 
         packet.readerIndex( readerIndex );
+        return packet;
     }
 
-    // Handles simple packets
-    private static void rewrite(ByteBuf packet, int oldId, int newId, boolean[] ints, boolean[] varints)
+    private static ByteBuf rewrite(ByteBuf packet, int oldId, int newId, EntityRewrite[] rewrites)
     {
         int readerIndex = packet.readerIndex();
         int packetId = DefinedPacket.readVarInt( packet );
-        int packetIdLength = packet.readerIndex() - readerIndex;
-
-        if ( 0 <= packetId && packetId < Protocol.MAX_PACKET_ID)
+        if ( packetId >= 0 && packetId < rewrites.length )
         {
-            if ( ints[packetId] )
-            {
-                rewriteInt( packet, oldId, newId, readerIndex + packetIdLength );
-            } else if ( varints[packetId] )
+            EntityRewrite rewrite = rewrites[packetId];
+            if ( rewrite != null )
             {
-                rewriteVarInt(packet, oldId, newId, readerIndex + packetIdLength);
+                packet = rewrite.rewrite( packet, oldId, newId );
             }
         }
         packet.readerIndex( readerIndex );
+        return packet;
     }
 }
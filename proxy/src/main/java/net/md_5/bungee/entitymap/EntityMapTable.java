@@ -0,0 +1,275 @@
+package net.md_5.bungee.entitymap;
+
+import static net.md_5.bungee.entitymap.EntityField.*;
+
+/**
+ * The entity ID rewrites of each protocol version. Every packet which can
+ * hold an entity ID lists its fields up to and including the last ID, see
+ * {@link EntityField}. Adding a version only requires a new table here and
+ * a case in {@link EntityMap#getEntityMap(int)}.
+ */
+final class EntityMapTable
+{
+
+    static final EntityMap MINECRAFT_1_7_2 = new EntityMap()
+            .clientbound( 0x04, INT ) // Entity Equipment
+            .clientbound( 0x0A, INT ) // Use bed
+            .clientbound( 0x0B, VARINT ) // Animation
+            .clientbound( 0x0C, VARINT ) // Spawn Player
+            .clientbound( 0x0D, INT, INT ) // Collect Item
+            .clientbound( 0x0E, VARINT, SPAWN_OBJECT_DATA_1_7 ) // Spawn Object
+            .clientbound( 0x0F, VARINT ) // Spawn Mob
+            .clientbound( 0x10, VARINT ) // Spawn Painting
+            .clientbound( 0x11, VARINT ) // Spawn Experience Orb
+            .clientbound( 0x12, INT ) // Entity Velocity
+            .clientbound( 0x13, INT_ARRAY ) // Destroy Entities
+            .clientbound( 0x14, INT ) // Entity
+            .clientbound( 0x15, INT ) // Entity Relative Move
+            .clientbound( 0x16, INT ) // Entity Look
+            .clientbound( 0x17, INT ) // Entity Look and Relative Move
+            .clientbound( 0x18, INT ) // Entity Teleport
+            .clientbound( 0x19, INT ) // Entity Head Look
+            .clientbound( 0x1A, INT ) // Entity Status
+            .clientbound( 0x1B, INT, INT ) // Attach Entity
+            .clientbound( 0x1C, INT ) // Entity Metadata
+            .clientbound( 0x1D, INT ) // Entity Effect
+            .clientbound( 0x1E, INT ) // Remove Entity Effect
+            .clientbound( 0x20, INT ) // Entity Properties
+            .clientbound( 0x25, VARINT ) // Block Break Animation
+            .clientbound( 0x2C, VARINT ) // Spawn Global Entity
+            .serverbound( 0x02, INT ) // Use Entity
+            .serverbound( 0x0A, INT ) // Animation
+            .serverbound( 0x0B, INT ); // Entity Action
+
+    static final EntityMap MINECRAFT_1_7_6 = new EntityMap( MINECRAFT_1_7_2 )
+            .clientbound( 0x0C, VARINT, SPAWN_PLAYER_PROFILE ); // Spawn Player
+
+    static final EntityMap MINECRAFT_1_8 = new EntityMap()
+            .clientbound( 0x04, VARINT ) // Entity Equipment
+            .clientbound( 0x0A, VARINT ) // Use bed
+            .clientbound( 0x0B, VARINT ) // Animation
+            .clientbound( 0x0C, VARINT, SPAWN_PLAYER_UUID ) // Spawn Player
+            .clientbound( 0x0D, VARINT, VARINT ) // Collect Item
+            .clientbound( 0x0E, VARINT, SPAWN_OBJECT_DATA_1_8 ) // Spawn Object
+            .clientbound( 0x0F, VARINT ) // Spawn Mob
+            .clientbound( 0x10, VARINT ) // Spawn Painting
+            .clientbound( 0x11, VARINT ) // Spawn Experience Orb
+            .clientbound( 0x12, VARINT ) // Entity Velocity
+            .clientbound( 0x13, VARINT_ARRAY ) // Destroy Entities
+            .clientbound( 0x14, VARINT ) // Entity
+            .clientbound( 0x15, VARINT ) // Entity Relative Move
+            .clientbound( 0x16, VARINT ) // Entity Look
+            .clientbound( 0x17, VARINT ) // Entity Look and Relative Move
+            .clientbound( 0x18, VARINT ) // Entity Teleport
+            .clientbound( 0x19, VARINT ) // Entity Head Look
+            .clientbound( 0x1A, INT ) // Entity Status
+            .clientbound( 0x1B, INT, INT ) // Attach Entity
+            .clientbound( 0x1C, VARINT ) // Entity Metadata
+            .clientbound( 0x1D, VARINT ) // Entity Effect
+            .clientbound( 0x1E, VARINT ) // Remove Entity Effect
+            .clientbound( 0x20, VARINT ) // Entity Properties
+            .clientbound( 0x25, VARINT ) // Block Break Animation
+            .clientbound( 0x2C, VARINT ) // Spawn Global Entity
+            .clientbound( 0x42, COMBAT_EVENT ) // Combat Event
+            .clientbound( 0x43, VARINT ) // Camera
+            .clientbound( 0x49, VARINT ) // Update Entity NBT
+            .serverbound( 0x02, VARINT ) // Use Entity
+            .serverbound( 0x0B, VARINT ) // Entity Action
+            .serverbound( 0x18, SPECTATE_UUID ); // Spectate
+
+    static final EntityMap MINECRAFT_1_9 = new EntityMap()
+            .clientbound( 0x00, VARINT, SPAWN_OBJECT_DATA_1_9 ) // Spawn Object : PacketPlayOutSpawnEntity
+            .clientbound( 0x01, VARINT ) // Spawn Experience Orb : PacketPlayOutSpawnEntityExperienceOrb
+            .clientbound( 0x03, VARINT ) // Spawn Mob : PacketPlayOutSpawnEntityLiving
+            .clientbound( 0x04, VARINT ) // Spawn Painting : PacketPlayOutSpawnEntityPainting
+            .clientbound( 0x05, VARINT, SPAWN_PLAYER_UUID ) // Spawn Player : PacketPlayOutNamedEntitySpawn
+            .clientbound( 0x06, VARINT ) // Animation : PacketPlayOutAnimation
+            .clientbound( 0x08, VARINT ) // Block Break Animation : PacketPlayOutBlockBreakAnimation
+            .clientbound( 0x1B, INT ) // Entity Status : PacketPlayOutEntityStatus
+            .clientbound( 0x25, VARINT ) // Entity Relative Move : PacketPlayOutRelEntityMove
+            .clientbound( 0x26, VARINT ) // Entity Look and Relative Move : PacketPlayOutRelEntityMoveLook
+            .clientbound( 0x27, VARINT ) // Entity Look : PacketPlayOutEntityLook
+            .clientbound( 0x28, VARINT ) // Entity : PacketPlayOutEntity
+            .clientbound( 0x2C, COMBAT_EVENT ) // Combat Event : PacketPlayOutCombatEvent
+            .clientbound( 0x2F, VARINT ) // Use bed : PacketPlayOutBed
+            .clientbound( 0x30, VARINT_ARRAY ) // Destroy Entities : PacketPlayOutEntityDestroy
+            .clientbound( 0x31, VARINT ) // Remove Entity Effect : PacketPlayOutRemoveEntityEffect
+            .clientbound( 0x34, VARINT ) // Entity Head Look : PacketPlayOutEntityHeadRotation
+            .clientbound( 0x36, VARINT ) // Camera : PacketPlayOutCamera
+            .clientbound( 0x39, VARINT ) // Entity Metadata : PacketPlayOutEntityMetadata
+            .clientbound( 0x3A, INT, INT ) // Attach Entity : PacketPlayOutAttachEntity
+            .clientbound( 0x3B, VARINT ) // Entity Velocity : PacketPlayOutEntityVelocity
+            .clientbound( 0x3C, VARINT ) // Entity Equipment : PacketPlayOutEntityEquipment
+            .clientbound( 0x40, VARINT, VARINT_ARRAY ) // Attach Entity : PacketPlayOutMount
+            .clientbound( 0x49, VARINT, VARINT ) // Collect Item : PacketPlayOutCollect
+            .clientbound( 0x4A, VARINT ) // Entity Teleport : PacketPlayOutEntityTeleport
+            .clientbound( 0x4B, VARINT ) // Entity Properties : PacketPlayOutUpdateAttributes
+            .clientbound( 0x4C, VARINT ) // Entity Effect : PacketPlayOutEntityEffect
+            .serverbound( 0x0A, VARINT ) // Use Entity : PacketPlayInUseEntity
+            .serverbound( 0x14, VARINT ) // Entity Action : PacketPlayInEntityAction
+            .serverbound( 0x1B, SPECTATE_UUID ); // Spectate : PacketPlayInSpectate
+
+    static final EntityMap MINECRAFT_1_9_4 = new EntityMap()
+            .clientbound( 0x00, VARINT, SPAWN_OBJECT_DATA_1_9 ) // Spawn Object : PacketPlayOutSpawnEntity
+            .clientbound( 0x01, VARINT ) // Spawn Experience Orb : PacketPlayOutSpawnEntityExperienceOrb
+            .clientbound( 0x03, VARINT ) // Spawn Mob : PacketPlayOutSpawnEntityLiving
+            .clientbound( 0x04, VARINT ) // Spawn Painting : PacketPlayOutSpawnEntityPainting
+            .clientbound( 0x05, VARINT, SPAWN_PLAYER_UUID ) // Spawn Player : PacketPlayOutNamedEntitySpawn
+            .clientbound( 0x06, VARINT ) // Animation : PacketPlayOutAnimation
+            .clientbound( 0x08, VARINT ) // Block Break Animation : PacketPlayOutBlockBreakAnimation
+            .clientbound( 0x1B, INT ) // Entity Status : PacketPlayOutEntityStatus
+            .clientbound( 0x25, VARINT ) // Entity Relative Move : PacketPlayOutRelEntityMove
+            .clientbound( 0x26, VARINT ) // Entity Look and Relative Move : PacketPlayOutRelEntityMoveLook
+            .clientbound( 0x27, VARINT ) // Entity Look : PacketPlayOutEntityLook
+            .clientbound( 0x28, VARINT ) // Entity : PacketPlayOutEntity
+            .clientbound( 0x2C, COMBAT_EVENT ) // Combat Event : PacketPlayOutCombatEvent
+            .clientbound( 0x2F, VARINT ) // Use bed : PacketPlayOutBed
+            .clientbound( 0x30, VARINT_ARRAY ) // Destroy Entities : PacketPlayOutEntityDestroy
+            .clientbound( 0x31, VARINT ) // Remove Entity Effect : PacketPlayOutRemoveEntityEffect
+            .clientbound( 0x34, VARINT ) // Entity Head Look : PacketPlayOutEntityHeadRotation
+            .clientbound( 0x36, VARINT ) // Camera : PacketPlayOutCamera
+            .clientbound( 0x39, VARINT ) // Entity Metadata : PacketPlayOutEntityMetadata
+            .clientbound( 0x3A, INT, INT ) // Attach Entity : PacketPlayOutAttachEntity
+            .clientbound( 0x3B, VARINT ) // Entity Velocity : PacketPlayOutEntityVelocity
+            .clientbound( 0x3C, VARINT ) // Entity Equipment : PacketPlayOutEntityEquipment
+            .clientbound( 0x40, VARINT, VARINT_ARRAY ) // Attach Entity : PacketPlayOutMount
+            .clientbound( 0x48, VARINT, VARINT ) // Collect Item : PacketPlayOutCollect
+            .clientbound( 0x49, VARINT ) // Entity Teleport : PacketPlayOutEntityTeleport
+            .clientbound( 0x4A, VARINT ) // Entity Properties : PacketPlayOutUpdateAttributes
+            .clientbound( 0x4B, VARINT ) // Entity Effect : PacketPlayOutEntityEffect
+            .serverbound( 0x0A, VARINT ) // Use Entity : PacketPlayInUseEntity
+            .serverbound( 0x14, VARINT ) // Entity Action : PacketPlayInEntityAction
+            .serverbound( 0x1B, SPECTATE_UUID ); // Spectate : PacketPlayInSpectate
+
+    static final EntityMap MINECRAFT_1_10 = new EntityMap()
+            .clientbound( 0x00, VARINT, SPAWN_OBJECT_DATA_1_9 ) // Spawn Object : PacketPlayOutSpawnEntity
+            .clientbound( 0x01, VARINT ) // Spawn Experience Orb : PacketPlayOutSpawnEntityExperienceOrb
+            .clientbound( 0x03, VARINT ) // Spawn Mob : PacketPlayOutSpawnEntityLiving
+            .clientbound( 0x04, VARINT ) // Spawn Painting : PacketPlayOutSpawnEntityPainting
+            .clientbound( 0x05, VARINT, SPAWN_PLAYER_UUID ) // Spawn Player : PacketPlayOutNamedEntitySpawn
+            .clientbound( 0x06, VARINT ) // Animation : PacketPlayOutAnimation
+            .clientbound( 0x08, VARINT ) // Block Break Animation : PacketPlayOutBlockBreakAnimation
+            .clientbound( 0x1B, INT ) // Entity Status : PacketPlayOutEntityStatus
+            .clientbound( 0x25, VARINT ) // Entity Relative Move : PacketPlayOutRelEntityMove
+            .clientbound( 0x26, VARINT ) // Entity Look and Relative Move : PacketPlayOutRelEntityMoveLook
+            .clientbound( 0x27, VARINT ) // Entity Look : PacketPlayOutEntityLook
+            .clientbound( 0x28, VARINT ) // Entity : PacketPlayOutEntity
+            .clientbound( 0x2C, COMBAT_EVENT ) // Combat Event : PacketPlayOutCombatEvent
+            .clientbound( 0x2F, VARINT ) // Use bed : PacketPlayOutBed
+            .clientbound( 0x30, VARINT_ARRAY ) // Destroy Entities : PacketPlayOutEntityDestroy
+            .clientbound( 0x31, VARINT ) // Remove Entity Effect : PacketPlayOutRemoveEntityEffect
+            .clientbound( 0x34, VARINT ) // Entity Head Look : PacketPlayOutEntityHeadRotation
+            .clientbound( 0x36, VARINT ) // Camera : PacketPlayOutCamera
+            .clientbound( 0x39, VARINT ) // Entity Metadata : PacketPlayOutEntityMetadata
+            .clientbound( 0x3A, INT, INT ) // Attach Entity : PacketPlayOutAttachEntity
+            .clientbound( 0x3B, VARINT ) // Entity Velocity : PacketPlayOutEntityVelocity
+            .clientbound( 0x3C, VARINT ) // Entity Equipment : PacketPlayOutEntityEquipment
+            .clientbound( 0x40, VARINT, VARINT_ARRAY ) // Attach Entity : PacketPlayOutMount
+            .clientbound( 0x48, VARINT, VARINT ) // Collect Item : PacketPlayOutCollect
+            .clientbound( 0x49, VARINT ) // Entity Teleport : PacketPlayOutEntityTeleport
+            .clientbound( 0x4A, VARINT ) // Entity Properties : PacketPlayOutUpdateAttributes
+            .clientbound( 0x4B, VARINT ) // Entity Effect : PacketPlayOutEntityEffect
+            .serverbound( 0x0A, VARINT ) // Use Entity : PacketPlayInUseEntity
+            .serverbound( 0x14, VARINT ) // Entity Action : PacketPlayInEntityAction
+            .serverbound( 0x1B, SPECTATE_UUID ); // Spectate : PacketPlayInSpectate
+
+    static final EntityMap MINECRAFT_1_11 = new EntityMap()
+            .clientbound( 0x00, VARINT, SPAWN_OBJECT_DATA_1_9 ) // Spawn Object : PacketPlayOutSpawnEntity
+            .clientbound( 0x01, VARINT ) // Spawn Experience Orb : PacketPlayOutSpawnEntityExperienceOrb
+            .clientbound( 0x03, VARINT ) // Spawn Mob : PacketPlayOutSpawnEntityLiving
+            .clientbound( 0x04, VARINT ) // Spawn Painting : PacketPlayOutSpawnEntityPainting
+            .clientbound( 0x05, VARINT, SPAWN_PLAYER_UUID ) // Spawn Player : PacketPlayOutNamedEntitySpawn
+            .clientbound( 0x06, VARINT ) // Animation : PacketPlayOutAnimation
+            .clientbound( 0x08, VARINT ) // Block Break Animation : PacketPlayOutBlockBreakAnimation
+            .clientbound( 0x1B, INT ) // Entity Status : PacketPlayOutEntityStatus
+            .clientbound( 0x25, VARINT ) // Entity Relative Move : PacketPlayOutRelEntityMove
+            .clientbound( 0x26, VARINT ) // Entity Look and Relative Move : PacketPlayOutRelEntityMoveLook
+            .clientbound( 0x27, VARINT ) // Entity Look : PacketPlayOutEntityLook
+            .clientbound( 0x28, VARINT ) // Entity : PacketPlayOutEntity
+            .clientbound( 0x2C, COMBAT_EVENT ) // Combat Event : PacketPlayOutCombatEvent
+            .clientbound( 0x2F, VARINT ) // Use bed : PacketPlayOutBed
+            .clientbound( 0x30, VARINT_ARRAY ) // Destroy Entities : PacketPlayOutEntityDestroy
+            .clientbound( 0x31, VARINT ) // Remove Entity Effect : PacketPlayOutRemoveEntityEffect
+            .clientbound( 0x34, VARINT ) // Entity Head Look : PacketPlayOutEntityHeadRotation
+            .clientbound( 0x36, VARINT ) // Camera : PacketPlayOutCamera
+            .clientbound( 0x39, VARINT, metadata( 7 ) ) // Entity Metadata : PacketPlayOutEntityMetadata
+            .clientbound( 0x3A, INT, INT ) // Attach Entity : PacketPlayOutAttachEntity
+            .clientbound( 0x3B, VARINT ) // Entity Velocity : PacketPlayOutEntityVelocity
+            .clientbound( 0x3C, VARINT ) // Entity Equipment : PacketPlayOutEntityEquipment
+            .clientbound( 0x40, VARINT, VARINT_ARRAY ) // Attach Entity : PacketPlayOutMount
+            .clientbound( 0x48, VARINT, VARINT ) // Collect Item : PacketPlayOutCollect
+            .clientbound( 0x49, VARINT ) // Entity Teleport : PacketPlayOutEntityTeleport
+            .clientbound( 0x4A, VARINT ) // Entity Properties : PacketPlayOutUpdateAttributes
+            .clientbound( 0x4B, VARINT ) // Entity Effect : PacketPlayOutEntityEffect
+            .serverbound( 0x0A, VARINT ) // Use Entity : PacketPlayInUseEntity
+            .serverbound( 0x14, VARINT ) // Entity Action : PacketPlayInEntityAction
+            .serverbound( 0x1B, SPECTATE_UUID ); // Spectate : PacketPlayInSpectate
+
+    static final EntityMap MINECRAFT_1_12 = new EntityMap()
+            .clientbound( 0x00, VARINT, SPAWN_OBJECT_DATA_1_9 ) // Spawn Object : PacketPlayOutSpawnEntity
+            .clientbound( 0x01, VARINT ) // Spawn Experience Orb : PacketPlayOutSpawnEntityExperienceOrb
+            .clientbound( 0x03, VARINT ) // Spawn Mob : PacketPlayOutSpawnEntityLiving
+            .clientbound( 0x04, VARINT ) // Spawn Painting : PacketPlayOutSpawnEntityPainting
+            .clientbound( 0x05, VARINT, SPAWN_PLAYER_UUID ) // Spawn Player : PacketPlayOutNamedEntitySpawn
+            .clientbound( 0x06, VARINT ) // Animation : PacketPlayOutAnimation
+            .clientbound( 0x08, VARINT ) // Block Break Animation : PacketPlayOutBlockBreakAnimation
+            .clientbound( 0x1B, INT ) // Entity Status : PacketPlayOutEntityStatus
+            .clientbound( 0x25, VARINT ) // Entity : PacketPlayOutEntity
+            .clientbound( 0x26, VARINT ) // Entity Relative Move : PacketPlayOutRelEntityMove
+            .clientbound( 0x27, VARINT ) // Entity Look and Relative Move : PacketPlayOutRelEntityMoveLook
+            .clientbound( 0x28, VARINT ) // Entity Look : PacketPlayOutEntityLook
+            .clientbound( 0x2C, COMBAT_EVENT ) // Combat Event : PacketPlayOutCombatEvent
+            .clientbound( 0x2F, VARINT ) // Use bed : PacketPlayOutBed
+            .clientbound( 0x31, VARINT_ARRAY ) // Destroy Entities : PacketPlayOutEntityDestroy
+            .clientbound( 0x32, VARINT ) // Remove Entity Effect : PacketPlayOutRemoveEntityEffect
+            .clientbound( 0x35, VARINT ) // Entity Head Look : PacketPlayOutEntityHeadRotation
+            .clientbound( 0x38, VARINT ) // Camera : PacketPlayOutCamera
+            .clientbound( 0x3B, VARINT, metadata( 7 ) ) // Entity Metadata : PacketPlayOutEntityMetadata
+            .clientbound( 0x3C, INT, INT ) // Attach Entity : PacketPlayOutAttachEntity
+            .clientbound( 0x3D, VARINT ) // Entity Velocity : PacketPlayOutEntityVelocity
+            .clientbound( 0x3E, VARINT ) // Entity Equipment : PacketPlayOutEntityEquipment
+            .clientbound( 0x42, VARINT, VARINT_ARRAY ) // Set Passengers : PacketPlayOutMount
+            .clientbound( 0x4A, VARINT, VARINT ) // Collect Item : PacketPlayOutCollect
+            .clientbound( 0x4B, VARINT ) // Entity Teleport : PacketPlayOutEntityTeleport
+            .clientbound( 0x4D, VARINT ) // Entity Properties : PacketPlayOutUpdateAttributes
+            .clientbound( 0x4E, VARINT ) // Entity Effect : PacketPlayOutEntityEffect
+            .serverbound( 0x0B, VARINT ) // Use Entity : PacketPlayInUseEntity
+            .serverbound( 0x15, VARINT ) // Entity Action : PacketPlayInEntityAction
+            .serverbound( 0x1E, SPECTATE_UUID ); // Spectate : PacketPlayInSpectate
+
+    static final EntityMap MINECRAFT_1_12_1 = new EntityMap()
+            .clientbound( 0x00, VARINT, SPAWN_OBJECT_DATA_1_9 ) // Spawn Object : PacketPlayOutSpawnEntity
+            .clientbound( 0x01, VARINT ) // Spawn Experience Orb : PacketPlayOutSpawnEntityExperienceOrb
+            .clientbound( 0x03, VARINT ) // Spawn Mob : PacketPlayOutSpawnEntityLiving
+            .clientbound( 0x04, VARINT ) // Spawn Painting : PacketPlayOutSpawnEntityPainting
+            .clientbound( 0x05, VARINT, SPAWN_PLAYER_UUID ) // Spawn Player : PacketPlayOutNamedEntitySpawn
+            .clientbound( 0x06, VARINT ) // Animation : PacketPlayOutAnimation
+            .clientbound( 0x08, VARINT ) // Block Break Animation : PacketPlayOutBlockBreakAnimation
+            .clientbound( 0x1B, INT ) // Entity Status : PacketPlayOutEntityStatus
+            .clientbound( 0x25, VARINT ) // Entity : PacketPlayOutEntity
+            .clientbound( 0x26, VARINT ) // Entity Relative Move : PacketPlayOutRelEntityMove
+            .clientbound( 0x27, VARINT ) // Entity Look and Relative Move : PacketPlayOutRelEntityMoveLook
+            .clientbound( 0x28, VARINT ) // Entity Look : PacketPlayOutEntityLook
+            .clientbound( 0x2D, COMBAT_EVENT ) // Combat Event : PacketPlayOutCombatEvent
+            .clientbound( 0x30, VARINT ) // Use bed : PacketPlayOutBed
+            .clientbound( 0x32, VARINT_ARRAY ) // Destroy Entities : PacketPlayOutEntityDestroy
+            .clientbound( 0x33, VARINT ) // Remove Entity Effect : PacketPlayOutRemoveEntityEffect
+            .clientbound( 0x36, VARINT ) // Entity Head Look : PacketPlayOutEntityHeadRotation
+            .clientbound( 0x39, VARINT ) // Camera : PacketPlayOutCamera
+            .clientbound( 0x3C, VARINT, metadata( 7 ) ) // Entity Metadata : PacketPlayOutEntityMetadata
+            .clientbound( 0x3D, INT, INT ) // Attach Entity : PacketPlayOutAttachEntity
+            .clientbound( 0x3E, VARINT ) // Entity Velocity : PacketPlayOutEntityVelocity
+            .clientbound( 0x3F, VARINT ) // Entity Equipment : PacketPlayOutEntityEquipment
+            .clientbound( 0x43, VARINT, VARINT_ARRAY ) // Set Passengers : PacketPlayOutMount
+            .clientbound( 0x4B, VARINT, VARINT ) // Collect Item : PacketPlayOutCollect
+            .clientbound( 0x4C, VARINT ) // Entity Teleport : PacketPlayOutEntityTeleport
+            .clientbound( 0x4E, VARINT ) // Entity Properties : PacketPlayOutUpdateAttributes
+            .clientbound( 0x4F, VARINT ) // Entity Effect : PacketPlayOutEntityEffect
+            .serverbound( 0x0A, VARINT ) // Use Entity : PacketPlayInUseEntity
+            .serverbound( 0x15, VARINT ) // Entity Action : PacketPlayInEntityAction
+            .serverbound( 0x1E, SPECTATE_UUID ); // Spectate : PacketPlayInSpectate
+
+    private EntityMapTable()
+    {
+    }
+}
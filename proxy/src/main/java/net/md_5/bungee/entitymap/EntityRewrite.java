@@ -0,0 +1,22 @@
+package net.md_5.bungee.entitymap;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Rewrites entity IDs within one part of a packet, starting at the reader
+ * index and leaving it after the part that was handled.
+ */
+interface EntityRewrite
+{
+
+    /**
+     * Swap oldId and newId wherever they appear in this part of the packet.
+     *
+     * @param packet the packet, with the reader index at this part
+     * @param oldId the ID to replace
+     * @param newId the ID to replace it with
+     * @return the rewritten packet, see
+     * {@link EntityMap#rewriteClientbound(ByteBuf, int, int)}
+     */
+    ByteBuf rewrite(ByteBuf packet, int oldId, int newId);
+}
@@ -9,8 +9,11 @@ import java.net.InetSocketAddress;
 import java.util.concurrent.TimeUnit;
 import lombok.Getter;
 import lombok.Setter;
+import net.md_5.bungee.compress.CompressionPolicy;
 import net.md_5.bungee.compress.PacketCompressor;
 import net.md_5.bungee.compress.PacketDecompressor;
+import net.md_5.bungee.protocol.CompressedPacket;
+import net.md_5.bungee.protocol.DefinedPacket;
 import net.md_5.bungee.protocol.MinecraftDecoder;
 import net.md_5.bungee.protocol.MinecraftEncoder;
 import net.md_5.bungee.protocol.PacketWrapper;
@@ -30,6 +33,20 @@ public class ChannelWrapper
     private volatile boolean closed;
     @Getter
     private volatile boolean closing;
+    // Current state of the packet codecs, so packets can be encoded for this channel up front
+    @Getter
+    private volatile Protocol protocol = Protocol.HANDSHAKE;
+    @Getter
+    private volatile int version;
+    @Getter
+    private volatile int compressionThreshold = -1;
+    private volatile int rtt = -1;
+    /**
+     * Keep the compressed frames of inbound packets, see
+     * {@link PacketWrapper#compressed}.
+     */
+    @Setter
+    private volatile boolean keepCompressed;
 
     public ChannelWrapper(ChannelHandlerContext ctx)
     {
@@ -39,26 +56,43 @@ public class ChannelWrapper
 
     public void setProtocol(Protocol protocol)
     {
+        this.protocol = protocol;
         ch.pipeline().get( MinecraftDecoder.class ).setProtocol( protocol );
         ch.pipeline().get( MinecraftEncoder.class ).setProtocol( protocol );
     }
 
     public void setVersion(int protocol)
     {
+        this.version = protocol;
         ch.pipeline().get( MinecraftDecoder.class ).setProtocolVersion( protocol );
         ch.pipeline().get( MinecraftEncoder.class ).setProtocolVersion( protocol );
     }
 
+    // Flushes are coalesced by the FlushConsolidationHandler in front of the boss handler
     public void write(Object packet)
     {
         if ( !closed )
         {
             if ( packet instanceof PacketWrapper )
             {
-                ( (PacketWrapper) packet ).setReleased( true );
-                ch.writeAndFlush( ( (PacketWrapper) packet ).buf, ch.voidPromise() );
+                PacketWrapper wrapper = (PacketWrapper) packet;
+                if ( wrapper.compressed != null )
+                {
+                    // Forwarded as compressed by the sender, the wrapper still releases buf
+                    ch.writeAndFlush( new CompressedPacket( wrapper.compressed ), ch.voidPromise() );
+                    wrapper.compressed = null;
+                } else
+                {
+                    wrapper.setReleased( true );
+                    ch.writeAndFlush( wrapper.buf, ch.voidPromise() );
+                }
             } else
             {
+                if ( packet instanceof DefinedPacket )
+                {
+                    // May still be queued for encoding after the read it came from
+                    ( (DefinedPacket) packet ).escape();
+                }
                 ch.writeAndFlush( packet, ch.voidPromise() );
             }
         }
@@ -133,6 +167,19 @@ public class ChannelWrapper
     }
 
     public void setCompressionThreshold(int compressionThreshold)
+    {
+        setCompressionThreshold( compressionThreshold, null );
+    }
+
+    /**
+     * Sets the compression threshold announced to the other side.
+     *
+     * @param compressionThreshold the announced threshold, -1 to disable
+     * compression
+     * @param policy adjusts the zlib level and raises the threshold of
+     * outbound packets as the connection goes, null to compress as announced
+     */
+    public void setCompressionThreshold(int compressionThreshold, CompressionPolicy policy)
     {
         if ( ch.pipeline().get( PacketCompressor.class ) == null && compressionThreshold != -1 )
         {
@@ -143,9 +190,13 @@ public class ChannelWrapper
                 return;
             }
         }
+        this.compressionThreshold = compressionThreshold;
         if ( compressionThreshold != -1 )
         {
-            ch.pipeline().get( PacketCompressor.class ).setThreshold( compressionThreshold );
+            PacketCompressor compressor = ch.pipeline().get( PacketCompressor.class );
+            compressor.setThreshold( compressionThreshold );
+            compressor.setPolicy( policy );
+            compressor.setRtt( rtt );
         } else
         {
             ch.pipeline().remove( "compress" );
@@ -153,11 +204,39 @@ public class ChannelWrapper
 
         if ( ch.pipeline().get( PacketDecompressor.class ) == null && compressionThreshold != -1 )
         {
-            addBefore( PipelineUtils.PACKET_DECODER, "decompress", new PacketDecompressor() );
+            addBefore( PipelineUtils.PACKET_DECODER, "decompress", new PacketDecompressor( keepCompressed ) );
         }
         if ( compressionThreshold == -1 )
         {
             ch.pipeline().remove( "decompress" );
         }
     }
+
+    /**
+     * Sets the measured round trip time, which the compression policy takes
+     * into account.
+     *
+     * @param rtt the round trip time in ms
+     */
+    public void setRtt(int rtt)
+    {
+        this.rtt = rtt;
+        PacketCompressor compressor = ch.pipeline().get( PacketCompressor.class );
+        if ( compressor != null )
+        {
+            compressor.setRtt( rtt );
+        }
+    }
+
+    /**
+     * Gets the number of bytes compression saved on this channel, as far as
+     * it compresses under a policy.
+     *
+     * @return bytes saved so far
+     */
+    public long getCompressionBytesSaved()
+    {
+        PacketCompressor compressor = ch.pipeline().get( PacketCompressor.class );
+        return ( compressor != null ) ? compressor.getBytesIn() - compressor.getBytesOut() : 0;
+    }
 }
@@ -0,0 +1,135 @@
+package net.md_5.bungee.netty;
+
+import com.google.common.base.Preconditions;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import lombok.Getter;
+
+/**
+ * Defers flushes so that everything relayed within one pass of the event loop
+ * reaches the socket in a single write, instead of one syscall per packet.
+ * <p>
+ * Flushes requested while this channel is reading are performed once its
+ * {@link #channelReadComplete(ChannelHandlerContext)} fires. Any other flush,
+ * such as a packet relayed from the opposite side of a connection, is
+ * performed by a task queued on the event loop, which runs as soon as the
+ * loop has finished processing the current batch of reads. Either way a flush
+ * is forced after {@code flushLimit} deferred ones, which bounds the
+ * latency added while a large burst is relayed.
+ */
+public class FlushConsolidationHandler extends ChannelDuplexHandler
+{
+
+    @Getter
+    private final int flushLimit;
+    private final Runnable flushTask = new Runnable()
+    {
+        @Override
+        public void run()
+        {
+            flushScheduled = false;
+            if ( !readInProgress )
+            {
+                flushIfNeeded( ctx );
+            }
+        }
+    };
+    //
+    private ChannelHandlerContext ctx;
+    private int pendingFlushes;
+    private boolean readInProgress;
+    private boolean flushScheduled;
+
+    public FlushConsolidationHandler(int flushLimit)
+    {
+        Preconditions.checkArgument( flushLimit > 0, "flushLimit must be positive" );
+        this.flushLimit = flushLimit;
+    }
+
+    @Override
+    public void handlerAdded(ChannelHandlerContext ctx) throws Exception
+    {
+        this.ctx = ctx;
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) throws Exception
+    {
+        flushIfNeeded( ctx );
+    }
+
+    @Override
+    public void flush(ChannelHandlerContext ctx) throws Exception
+    {
+        if ( ++pendingFlushes >= flushLimit )
+        {
+            flushNow( ctx );
+        } else if ( !readInProgress && !flushScheduled )
+        {
+            flushScheduled = true;
+            ctx.channel().eventLoop().execute( flushTask );
+        }
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception
+    {
+        readInProgress = true;
+        ctx.fireChannelRead( msg );
+    }
+
+    @Override
+    public void channelReadComplete(ChannelHandlerContext ctx) throws Exception
+    {
+        readInProgress = false;
+        flushIfNeeded( ctx );
+        ctx.fireChannelReadComplete();
+    }
+
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception
+    {
+        // Let the buffered data drain rather than waiting for more to pile up
+        if ( !ctx.channel().isWritable() )
+        {
+            flushIfNeeded( ctx );
+        }
+        ctx.fireChannelWritabilityChanged();
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception
+    {
+        flushIfNeeded( ctx );
+        ctx.fireExceptionCaught( cause );
+    }
+
+    @Override
+    public void disconnect(ChannelHandlerContext ctx, ChannelPromise promise) throws Exception
+    {
+        flushIfNeeded( ctx );
+        ctx.disconnect( promise );
+    }
+
+    @Override
+    public void close(ChannelHandlerContext ctx, ChannelPromise promise) throws Exception
+    {
+        flushIfNeeded( ctx );
+        ctx.close( promise );
+    }
+
+    private void flushIfNeeded(ChannelHandlerContext ctx)
+    {
+        if ( pendingFlushes > 0 )
+        {
+            flushNow( ctx );
+        }
+    }
+
+    private void flushNow(ChannelHandlerContext ctx)
+    {
+        pendingFlushes = 0;
+        ctx.flush();
+    }
+}
@@ -98,8 +98,9 @@ public class HandlerBoss extends ChannelInboundHandlerAdapter
             boolean sendPacket = handler.shouldHandle( packet );
             try
             {
-                if ( sendPacket && packet.packet != null )
+                if ( sendPacket && packet.packet != null && handler.handles( packet.packet.getClass() ) )
                 {
+                    packet.readPacket();
                     try
                     {
                         packet.packet.handle( handler );
@@ -0,0 +1,159 @@
+package net.md_5.bungee.netty;
+
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import java.util.zip.DataFormatException;
+import lombok.RequiredArgsConstructor;
+import net.md_5.bungee.compress.PacketCompressor;
+import net.md_5.bungee.compress.ZlibPool;
+import net.md_5.bungee.jni.zlib.BungeeZlib;
+import net.md_5.bungee.protocol.DefinedPacket;
+import net.md_5.bungee.protocol.EncodedPacket;
+import net.md_5.bungee.protocol.Protocol;
+
+/**
+ * Sends one packet to many clients, encoding and compressing it once for
+ * every distinct protocol version, compression threshold and zlib level in
+ * use among them rather than once per client. Threshold and level are the
+ * ones each connection currently compresses with, see
+ * {@link PacketCompressor}. Each client only encrypts its copy.
+ */
+public class PacketBroadcaster
+{
+
+    // Marks groups the packet could not be encoded for, their clients encode it themselves
+    private static final Encoded FAILED = new Encoded( null, 0 );
+    //
+    private final DefinedPacket packet;
+    // (version << 36 | (level + 1) << 32 | threshold) -> framed packet
+    private final TLongObjectMap<Encoded> encoded = new TLongObjectHashMap<>();
+
+    public PacketBroadcaster(DefinedPacket packet)
+    {
+        this.packet = packet;
+    }
+
+    /**
+     * Sends the packet to the given client channel.
+     *
+     * @param ch the channel to send to
+     */
+    public void send(ChannelWrapper ch)
+    {
+        if ( ch.isClosed() )
+        {
+            return;
+        }
+        if ( ch.getProtocol() != Protocol.GAME )
+        {
+            ch.write( packet );
+            return;
+        }
+
+        PacketCompressor compressor = ( ch.getCompressionThreshold() != -1 ) ? ch.getHandle().pipeline().get( PacketCompressor.class ) : null;
+        int threshold = ( compressor != null ) ? compressor.getEffectiveThreshold() : -1;
+        int level = ( compressor != null ) ? compressor.getLevel() : 0;
+
+        long key = ( (long) ch.getVersion() << 36 ) | ( (long) ( level + 1 ) << 32 ) | ( threshold & 0xFFFFFFFFL );
+        Encoded group = encoded.get( key );
+        if ( group == null )
+        {
+            try
+            {
+                group = encode( ch.getVersion(), threshold, level );
+            } catch ( RuntimeException ex )
+            {
+                // Like before, only the pipelines of these clients fail to encode it, not the whole broadcast
+                group = FAILED;
+            }
+            encoded.put( key, group );
+        }
+
+        if ( group == FAILED )
+        {
+            ch.write( packet );
+            return;
+        }
+        if ( compressor != null )
+        {
+            compressor.record( group.origSize, group.buf.readableBytes() );
+        }
+        ch.write( new EncodedPacket( group.buf.retainedDuplicate() ) );
+    }
+
+    /**
+     * Releases the encoded copies, the clients keep their own references
+     * until the packet has been written.
+     */
+    public void release()
+    {
+        for ( Encoded group : encoded.valueCollection() )
+        {
+            if ( group != FAILED )
+            {
+                group.buf.release();
+            }
+        }
+        encoded.clear();
+    }
+
+    private Encoded encode(int version, int threshold, int level)
+    {
+        Protocol.DirectionData prot = Protocol.GAME.TO_CLIENT;
+        ByteBuf body = PooledByteBufAllocator.DEFAULT.directBuffer();
+        try
+        {
+            DefinedPacket.writeVarInt( prot.getId( packet.getClass(), version ), body );
+            packet.write( body, prot.getDirection(), version );
+            int origSize = body.readableBytes();
+
+            if ( threshold != -1 )
+            {
+                ByteBuf compressed = PooledByteBufAllocator.DEFAULT.directBuffer();
+                BungeeZlib zlib = null;
+                boolean reusable = false;
+                try
+                {
+                    zlib = ZlibPool.acquire( true, level );
+                    PacketCompressor.compress( zlib, threshold, body, compressed );
+                    reusable = true;
+                } catch ( DataFormatException ex )
+                {
+                    throw new IllegalStateException( "Could not compress broadcast packet", ex );
+                } finally
+                {
+                    if ( zlib != null )
+                    {
+                        ZlibPool.release( zlib, true, level, reusable );
+                    }
+                    if ( !reusable )
+                    {
+                        compressed.release();
+                    }
+                }
+                body.release();
+                body = compressed;
+            }
+
+            int length = body.readableBytes();
+            ByteBuf framed = PooledByteBufAllocator.DEFAULT.directBuffer( DefinedPacket.varIntSize( length ) + length );
+            DefinedPacket.writeVarInt( length, framed );
+            framed.writeBytes( body );
+            return new Encoded( framed, origSize );
+        } finally
+        {
+            body.release();
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static final class Encoded
+    {
+
+        private final ByteBuf buf;
+        // Packet id and fields before compression
+        private final int origSize;
+    }
+}
@@ -1,10 +1,49 @@
 package net.md_5.bungee.netty;
 
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import net.md_5.bungee.protocol.AbstractPacketHandler;
+import net.md_5.bungee.protocol.DefinedPacket;
 import net.md_5.bungee.protocol.PacketWrapper;
 
 public abstract class PacketHandler extends net.md_5.bungee.protocol.AbstractPacketHandler
 {
 
+    // Packet classes each handler class overrides handle for
+    private static final ClassValue<Set<Class<?>>> HANDLED_PACKETS = new ClassValue<Set<Class<?>>>()
+    {
+        @Override
+        protected Set<Class<?>> computeValue(Class<?> type)
+        {
+            Set<Class<?>> handled = Collections.newSetFromMap( new IdentityHashMap<Class<?>, Boolean>() );
+            for ( Method method : type.getMethods() )
+            {
+                if ( method.getName().equals( "handle" ) && method.getParameterTypes().length == 1
+                        && DefinedPacket.class.isAssignableFrom( method.getParameterTypes()[0] )
+                        && method.getDeclaringClass() != AbstractPacketHandler.class )
+                {
+                    handled.add( method.getParameterTypes()[0] );
+                }
+            }
+            return handled;
+        }
+    };
+
+    /**
+     * Checks whether this handler does anything with the given packet, as
+     * opposed to the empty defaults of {@link AbstractPacketHandler}. Packets
+     * nobody handles are relayed without their fields ever being read.
+     *
+     * @param packet the packet class
+     * @return whether handle is overridden for this packet
+     */
+    public final boolean handles(Class<? extends DefinedPacket> packet)
+    {
+        return HANDLED_PACKETS.get( getClass() ).contains( packet );
+    }
+
     @Override
     public abstract String toString();
 
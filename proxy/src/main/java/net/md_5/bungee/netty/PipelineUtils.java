@@ -31,6 +31,7 @@ import net.md_5.bungee.Util;
 import net.md_5.bungee.connection.InitialHandler;
 import net.md_5.bungee.api.ProxyServer;
 import net.md_5.bungee.api.config.ListenerInfo;
+import net.md_5.bungee.compress.CompressionPolicy;
 import net.md_5.bungee.protocol.KickStringWriter;
 import net.md_5.bungee.protocol.LegacyDecoder;
 import net.md_5.bungee.protocol.MinecraftDecoder;
@@ -54,6 +55,7 @@ public class PipelineUtils
 
             BASE.initChannel( ch );
             ch.pipeline().addBefore( FRAME_DECODER, LEGACY_DECODER, new LegacyDecoder() );
+            // Client packets are always read in full, so malformed ones are not passed on to the server
             ch.pipeline().addAfter( FRAME_DECODER, PACKET_DECODER, new MinecraftDecoder( Protocol.HANDSHAKE, true, ProxyServer.getInstance().getProtocolVersion() ) );
             ch.pipeline().addAfter( FRAME_PREPENDER, PACKET_ENCODER, new MinecraftEncoder( Protocol.HANDSHAKE, true, ProxyServer.getInstance().getProtocolVersion() ) );
             ch.pipeline().addBefore( FRAME_PREPENDER, LEGACY_KICKER, new KickStringWriter() );
@@ -67,6 +69,7 @@ public class PipelineUtils
     };
     public static final Base BASE = new Base();
     private static final Varint21LengthFieldPrepender framePrepender = new Varint21LengthFieldPrepender();
+    public static final String FLUSH_CONSOLIDATION = "flush-consolidation";
     public static final String TIMEOUT_HANDLER = "timeout";
     public static final String PACKET_DECODER = "packet-decoder";
     public static final String PACKET_ENCODER = "packet-encoder";
@@ -119,6 +122,14 @@ public class PipelineUtils
     private static final int LOW_MARK = Integer.getInteger( "net.md_5.bungee.low_mark", 2 << 18 ); // 0.5 mb
     private static final int HIGH_MARK = Integer.getInteger( "net.md_5.bungee.high_mark", 2 << 20 ); // 2 mb
     private static final WriteBufferWaterMark MARK = new WriteBufferWaterMark( LOW_MARK, HIGH_MARK );
+    // Only read packets from servers once a handler needs them
+    public static final boolean LAZY_DECODE = Boolean.parseBoolean( System.getProperty( "net.md_5.bungee.lazy_decode", "true" ) );
+    // Adapt zlib level and threshold of client connections, see CompressionPolicy
+    public static final CompressionPolicy COMPRESSION_POLICY = Boolean.parseBoolean( System.getProperty( "net.md_5.bungee.adaptive_compression", "true" ) ) ? CompressionPolicy.DEFAULT : null;
+    // Forward compressed backend packets without compressing them again where possible
+    public static final boolean FORWARD_COMPRESSED = Boolean.parseBoolean( System.getProperty( "net.md_5.bungee.forward_compressed", "true" ) );
+    // Relayed packets are flushed at most this many at a time, 0 flushes every packet
+    private static final int FLUSH_LIMIT = Integer.getInteger( "net.md_5.bungee.flush_limit", 64 );
 
     public final static class Base extends ChannelInitializer<Channel>
     {
@@ -139,6 +150,11 @@ public class PipelineUtils
             ch.pipeline().addLast( TIMEOUT_HANDLER, new ReadTimeoutHandler( BungeeCord.getInstance().config.getTimeout(), TimeUnit.MILLISECONDS ) );
             ch.pipeline().addLast( FRAME_DECODER, new Varint21FrameDecoder() );
             ch.pipeline().addLast( FRAME_PREPENDER, framePrepender );
+            if ( FLUSH_LIMIT > 0 )
+            {
+                // Next to the boss, so the cipher sees consolidated flushes as well
+                ch.pipeline().addLast( FLUSH_CONSOLIDATION, new FlushConsolidationHandler( FLUSH_LIMIT ) );
+            }
 
             ch.pipeline().addLast( BOSS_HANDLER, new HandlerBoss() );
         }
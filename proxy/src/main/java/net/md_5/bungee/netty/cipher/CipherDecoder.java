@@ -16,7 +16,9 @@ public class CipherDecoder extends MessageToMessageDecoder<ByteBuf>
     @Override
     protected void decode(ChannelHandlerContext ctx, ByteBuf msg, List<Object> out) throws Exception
     {
-        out.add( cipher.cipher( ctx, msg ) );
+        // Read buffers are ours alone, so no second buffer is needed
+        cipher.cipherInPlace( msg );
+        out.add( msg.retain() );
     }
 
     @Override
@@ -1,26 +1,160 @@
 package net.md_5.bungee.netty.cipher;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.MessageToByteEncoder;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayList;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 import net.md_5.bungee.jni.cipher.BungeeCipher;
 
+/**
+ * Encrypts outbound frames. The frames written until the next flush are
+ * gathered in one buffer, which is then encrypted in place with a single
+ * call to the cipher. With many small packets the cost of each call would
+ * otherwise outweigh the work of CFB8 itself.
+ */
 @RequiredArgsConstructor
-public class CipherEncoder extends MessageToByteEncoder<ByteBuf>
+public class CipherEncoder extends ChannelOutboundHandlerAdapter
 {
 
+    // Encrypt and pass on a batch once it grows this large
+    private static final int MAX_BATCH = 1 << 16;
+    // Room for a run of small packets without growing the batch
+    private static final int INITIAL_BATCH = 4096;
+    //
     private final BungeeCipher cipher;
+    private ByteBuf batch;
+    private final List<ChannelPromise> promises = new ArrayList<>();
 
     @Override
-    protected void encode(ChannelHandlerContext ctx, ByteBuf in, ByteBuf out) throws Exception
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception
     {
-        cipher.cipher( in, out );
+        if ( !( msg instanceof ByteBuf ) )
+        {
+            writeBatch( ctx );
+            ctx.write( msg, promise );
+            return;
+        }
+
+        ByteBuf buf = (ByteBuf) msg;
+        try
+        {
+            if ( batch == null )
+            {
+                batch = ctx.alloc().directBuffer( Math.max( buf.readableBytes(), INITIAL_BATCH ) );
+            }
+            // Netty fails the promise if this throws
+            batch.writeBytes( buf );
+        } finally
+        {
+            buf.release();
+        }
+
+        if ( !promise.isVoid() )
+        {
+            promises.add( promise );
+        }
+        if ( batch.readableBytes() >= MAX_BATCH )
+        {
+            writeBatch( ctx );
+        }
+    }
+
+    @Override
+    public void flush(ChannelHandlerContext ctx) throws Exception
+    {
+        writeBatch( ctx );
+        ctx.flush();
+    }
+
+    @Override
+    public void close(ChannelHandlerContext ctx, ChannelPromise promise) throws Exception
+    {
+        writeBatch( ctx );
+        // Written data which is not flushed is dropped on close
+        ctx.flush();
+        ctx.close( promise );
     }
 
     @Override
     public void handlerRemoved(ChannelHandlerContext ctx) throws Exception
     {
+        if ( batch != null )
+        {
+            batch.release();
+            batch = null;
+            failPromises( new ClosedChannelException() );
+        }
         cipher.free();
     }
+
+    private void writeBatch(ChannelHandlerContext ctx) throws Exception
+    {
+        if ( batch == null )
+        {
+            return;
+        }
+
+        ByteBuf buf = batch;
+        batch = null;
+        try
+        {
+            cipher.cipherInPlace( buf );
+        } catch ( Exception ex )
+        {
+            buf.release();
+            failPromises( ex );
+            throw ex;
+        }
+        ctx.write( buf, batchPromise( ctx ) );
+    }
+
+    private ChannelPromise batchPromise(ChannelHandlerContext ctx)
+    {
+        if ( promises.isEmpty() )
+        {
+            return ctx.voidPromise();
+        }
+        if ( promises.size() == 1 )
+        {
+            return promises.remove( 0 );
+        }
+
+        final ChannelPromise[] pending = promises.toArray( new ChannelPromise[ promises.size() ] );
+        promises.clear();
+
+        ChannelPromise promise = ctx.newPromise();
+        promise.addListener( new ChannelFutureListener()
+        {
+            @Override
+            public void operationComplete(ChannelFuture future) throws Exception
+            {
+                for ( ChannelPromise p : pending )
+                {
+                    if ( future.isSuccess() )
+                    {
+                        p.trySuccess();
+                    } else
+                    {
+                        p.tryFailure( future.cause() );
+                    }
+                }
+            }
+        } );
+        return promise;
+    }
+
+    private void failPromises(Throwable cause)
+    {
+        for ( ChannelPromise promise : promises )
+        {
+            promise.tryFailure( cause );
+        }
+        promises.clear();
+    }
 }
@@ -0,0 +1,33 @@
+package net.md_5.bungee.compress;
+
+import java.util.zip.Deflater;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompressionPolicyTest
+{
+
+    private final CompressionPolicy policy = new CompressionPolicy( 5, 200, 1 << 20, 0.75, 1024 );
+
+    @Test
+    public void testLevel()
+    {
+        Assert.assertEquals( Deflater.DEFAULT_COMPRESSION, policy.level( -1, 0, 0, false ) );
+        Assert.assertEquals( Deflater.DEFAULT_COMPRESSION, policy.level( 50, 0, 0, false ) );
+        Assert.assertEquals( "LAN", Deflater.BEST_SPEED, policy.level( 1, 0, 0, false ) );
+        Assert.assertEquals( "Burst", Deflater.BEST_SPEED, policy.level( 50, 2 << 20, 0, false ) );
+        Assert.assertEquals( "Busy", Deflater.BEST_SPEED, policy.level( 300, 0, 0.9, true ) );
+        Assert.assertEquals( "Slow", Deflater.BEST_COMPRESSION, policy.level( 300, 0, 0, false ) );
+        Assert.assertEquals( "Congested", Deflater.BEST_COMPRESSION, policy.level( 50, 0, 0, true ) );
+    }
+
+    @Test
+    public void testThreshold()
+    {
+        Assert.assertEquals( 256, policy.threshold( 256, 50, 0 ) );
+        Assert.assertEquals( 256, policy.threshold( 256, -1, 0 ) );
+        Assert.assertEquals( 1024, policy.threshold( 256, 1, 0 ) );
+        Assert.assertEquals( 1024, policy.threshold( 256, 50, 0.9 ) );
+        Assert.assertEquals( "Never below the announced threshold", 2048, policy.threshold( 2048, 1, 0 ) );
+    }
+}
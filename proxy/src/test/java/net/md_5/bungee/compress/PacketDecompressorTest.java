@@ -0,0 +1,86 @@
+package net.md_5.bungee.compress;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.util.zip.Deflater;
+import net.md_5.bungee.jni.zlib.BungeeZlib;
+import net.md_5.bungee.protocol.CompressedPacket;
+import net.md_5.bungee.protocol.DefinedPacket;
+import net.md_5.bungee.protocol.MinecraftDecoder;
+import net.md_5.bungee.protocol.PacketWrapper;
+import net.md_5.bungee.protocol.Protocol;
+import net.md_5.bungee.protocol.ProtocolConstants;
+import net.md_5.bungee.protocol.Varint21LengthFieldPrepender;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PacketDecompressorTest
+{
+
+    @Test
+    public void testKeepCompressed() throws Exception
+    {
+        ByteBuf packet = packet();
+        ByteBuf frame = compress( packet );
+
+        EmbeddedChannel backend = new EmbeddedChannel( new PacketDecompressor( true ), new MinecraftDecoder( Protocol.GAME, false, ProtocolConstants.MINECRAFT_1_12_2 ) );
+        backend.writeInbound( frame.retainedDuplicate() );
+        PacketWrapper wrapper = backend.readInbound();
+
+        Assert.assertEquals( "Packet should be inflated", packet, wrapper.buf );
+        Assert.assertEquals( "Frame should be kept", frame, wrapper.compressed );
+
+        EmbeddedChannel client = new EmbeddedChannel( new Varint21LengthFieldPrepender(), new PacketCompressor() );
+        client.writeOutbound( new CompressedPacket( wrapper.compressed ) );
+        wrapper.compressed = null;
+        wrapper.trySingleRelease();
+
+        ByteBuf framed = client.readOutbound();
+        Assert.assertEquals( frame.readableBytes(), DefinedPacket.readVarInt( framed ) );
+        Assert.assertEquals( "Frame should be forwarded as is", frame, framed );
+
+        framed.release();
+        frame.release();
+        packet.release();
+        Assert.assertFalse( backend.finish() );
+        Assert.assertFalse( client.finish() );
+    }
+
+    @Test
+    public void testDiscardCompressed() throws Exception
+    {
+        ByteBuf packet = packet();
+        ByteBuf frame = compress( packet );
+
+        EmbeddedChannel backend = new EmbeddedChannel( new PacketDecompressor( false ), new MinecraftDecoder( Protocol.GAME, false, ProtocolConstants.MINECRAFT_1_12_2 ) );
+        backend.writeInbound( frame );
+        PacketWrapper wrapper = backend.readInbound();
+
+        Assert.assertEquals( packet, wrapper.buf );
+        Assert.assertNull( wrapper.compressed );
+
+        wrapper.trySingleRelease();
+        packet.release();
+        Assert.assertFalse( backend.finish() );
+    }
+
+    private static ByteBuf packet()
+    {
+        ByteBuf packet = Unpooled.buffer();
+        DefinedPacket.writeVarInt( 0x7F, packet ); // Unknown to the decoder
+        packet.writeZero( 1024 );
+        return packet;
+    }
+
+    private static ByteBuf compress(ByteBuf packet) throws Exception
+    {
+        BungeeZlib zlib = CompressFactory.zlib.newInstance();
+        zlib.init( true, Deflater.DEFAULT_COMPRESSION );
+
+        ByteBuf frame = Unpooled.directBuffer();
+        PacketCompressor.compress( zlib, 256, packet.duplicate(), frame );
+        zlib.free();
+        return frame;
+    }
+}
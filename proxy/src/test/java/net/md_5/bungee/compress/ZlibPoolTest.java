@@ -0,0 +1,52 @@
+package net.md_5.bungee.compress;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import net.md_5.bungee.jni.zlib.BungeeZlib;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ZlibPoolTest
+{
+
+    @Test
+    public void testReuse()
+    {
+        BungeeZlib zlib = ZlibPool.acquire( true, Deflater.BEST_SPEED );
+        ZlibPool.release( zlib, true, Deflater.BEST_SPEED, true );
+
+        Assert.assertNotSame( "Levels should not be mixed", zlib, ZlibPool.acquire( true, Deflater.BEST_COMPRESSION ) );
+        Assert.assertNotSame( "Inflaters and deflaters should not be mixed", zlib, ZlibPool.acquire( false, 0 ) );
+        Assert.assertSame( zlib, ZlibPool.acquire( true, Deflater.BEST_SPEED ) );
+    }
+
+    @Test
+    public void testNotReusable()
+    {
+        BungeeZlib zlib = ZlibPool.acquire( false, 0 );
+        long freed = ZlibPool.getFreed();
+        ZlibPool.release( zlib, false, 0, false );
+
+        Assert.assertEquals( freed + 1, ZlibPool.getFreed() );
+        Assert.assertNotSame( zlib, ZlibPool.acquire( false, 0 ) );
+    }
+
+    @Test
+    public void testCapacity()
+    {
+        List<BungeeZlib> contexts = new ArrayList<>();
+        for ( int i = 0; i < ZlibPool.CAPACITY + 1; i++ )
+        {
+            contexts.add( ZlibPool.acquire( false, 0 ) );
+        }
+
+        long freed = ZlibPool.getFreed();
+        for ( BungeeZlib zlib : contexts )
+        {
+            ZlibPool.release( zlib, false, 0, true );
+        }
+        Assert.assertTrue( "Contexts beyond the capacity should be freed", ZlibPool.getFreed() > freed );
+        Assert.assertTrue( ZlibPool.getIdle() <= ZlibPool.CAPACITY );
+    }
+}
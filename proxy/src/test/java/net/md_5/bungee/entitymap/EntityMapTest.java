@@ -0,0 +1,121 @@
+package net.md_5.bungee.entitymap;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import net.md_5.bungee.protocol.DefinedPacket;
+import net.md_5.bungee.protocol.ProtocolConstants;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class EntityMapTest
+{
+
+    private final EntityMap entityMap = EntityMap.getEntityMap( ProtocolConstants.MINECRAFT_1_12_2 );
+
+    @Test
+    public void testSameWidth()
+    {
+        ByteBuf packet = headLook( 5 );
+        ByteBuf rewritten = entityMap.rewriteClientbound( packet, 5, 7 );
+
+        Assert.assertSame( "Packet should be rewritten in place", packet, rewritten );
+        Assert.assertEquals( "Reader index should be restored", 0, rewritten.readerIndex() );
+        assertBytes( headLook( 7 ), rewritten );
+    }
+
+    @Test
+    public void testWidthChange()
+    {
+        ByteBuf rewritten = entityMap.rewriteClientbound( headLook( 5 ), 5, 300 );
+        assertBytes( headLook( 300 ), rewritten.retain() );
+
+        rewritten = entityMap.rewriteClientbound( rewritten, 5, 300 );
+        assertBytes( headLook( 5 ), rewritten );
+    }
+
+    @Test
+    public void testDestroyEntities()
+    {
+        ByteBuf rewritten = entityMap.rewriteClientbound( destroy( 1, 5, 300, 9 ), 5, 300 );
+        assertBytes( destroy( 1, 300, 5, 9 ), rewritten );
+    }
+
+    @Test
+    public void testSetPassengers()
+    {
+        ByteBuf rewritten = entityMap.rewriteClientbound( varInts( 0x43, 5, 2, 300, 5 ), 5, 300 );
+        assertBytes( varInts( 0x43, 300, 2, 5, 300 ), rewritten );
+    }
+
+    @Test
+    public void testUnknownPacket()
+    {
+        ByteBuf packet = varInts( 0x7F, 5, 5 );
+        ByteBuf rewritten = entityMap.rewriteClientbound( packet, 5, 7 );
+
+        Assert.assertSame( "Packet should be left alone", packet, rewritten );
+        assertBytes( varInts( 0x7F, 5, 5 ), rewritten );
+    }
+
+    @Test
+    public void testIdentity()
+    {
+        ByteBuf packet = headLook( 5 );
+        ByteBuf rewritten = entityMap.rewriteClientbound( packet, 5, 5 );
+
+        Assert.assertSame( "Packet should be left alone", packet, rewritten );
+        assertBytes( headLook( 5 ), rewritten );
+    }
+
+    @Test
+    public void testRewritesClientbound()
+    {
+        ByteBuf packet = headLook( 5 );
+        Assert.assertTrue( entityMap.rewritesClientbound( packet, 5, 7 ) );
+        Assert.assertFalse( "Identity map should skip entity IDs", entityMap.rewritesClientbound( packet, 5, 5 ) );
+        Assert.assertEquals( "Reader index should be kept", 0, packet.readerIndex() );
+        packet.release();
+
+        packet = varInts( 0x7F, 5, 5 );
+        Assert.assertFalse( entityMap.rewritesClientbound( packet, 5, 7 ) );
+        packet.release();
+    }
+
+    private static ByteBuf varInts(int... values)
+    {
+        ByteBuf packet = Unpooled.buffer();
+        for ( int value : values )
+        {
+            DefinedPacket.writeVarInt( value, packet );
+        }
+        return packet;
+    }
+
+    private static ByteBuf headLook(int entityId)
+    {
+        ByteBuf packet = Unpooled.buffer();
+        DefinedPacket.writeVarInt( 0x36, packet );
+        DefinedPacket.writeVarInt( entityId, packet );
+        packet.writeByte( 64 );
+        return packet;
+    }
+
+    private static ByteBuf destroy(int... entityIds)
+    {
+        ByteBuf packet = Unpooled.buffer();
+        DefinedPacket.writeVarInt( 0x32, packet );
+        DefinedPacket.writeVarInt( entityIds.length, packet );
+        for ( int entityId : entityIds )
+        {
+            DefinedPacket.writeVarInt( entityId, packet );
+        }
+        return packet;
+    }
+
+    private static void assertBytes(ByteBuf expected, ByteBuf actual)
+    {
+        Assert.assertEquals( "Packet contents do not match", expected, actual );
+        expected.release();
+        actual.release();
+    }
+}
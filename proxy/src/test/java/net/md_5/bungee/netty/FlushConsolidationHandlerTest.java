@@ -0,0 +1,65 @@
+package net.md_5.bungee.netty;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FlushConsolidationHandlerTest
+{
+
+    @Test
+    public void testDeferredUntilTasksRun()
+    {
+        EmbeddedChannel ch = new EmbeddedChannel( new FlushConsolidationHandler( 64 ) );
+        for ( int i = 0; i < 3; i++ )
+        {
+            ch.writeAndFlush( i );
+        }
+        Assert.assertTrue( "Flush should be deferred", ch.outboundMessages().isEmpty() );
+
+        ch.runPendingTasks();
+        Assert.assertEquals( 3, ch.outboundMessages().size() );
+        ch.finish();
+    }
+
+    @Test
+    public void testFlushLimit()
+    {
+        EmbeddedChannel ch = new EmbeddedChannel( new FlushConsolidationHandler( 2 ) );
+        ch.writeAndFlush( 1 );
+        Assert.assertTrue( "Flush should be deferred", ch.outboundMessages().isEmpty() );
+
+        ch.writeAndFlush( 2 );
+        Assert.assertEquals( "Limit should force a flush", 2, ch.outboundMessages().size() );
+        ch.finish();
+    }
+
+    @Test
+    public void testFlushOnReadComplete()
+    {
+        EmbeddedChannel ch = new EmbeddedChannel( new FlushConsolidationHandler( 64 ), new ChannelInboundHandlerAdapter()
+        {
+            @Override
+            public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception
+            {
+                ctx.writeAndFlush( msg );
+            }
+        } );
+        ch.writeInbound( 1, 2, 3 );
+
+        Assert.assertEquals( "Read complete should flush", 3, ch.outboundMessages().size() );
+        ch.finish();
+    }
+
+    @Test
+    public void testFlushOnClose()
+    {
+        EmbeddedChannel ch = new EmbeddedChannel( new FlushConsolidationHandler( 64 ) );
+        ch.writeAndFlush( 1 );
+        ch.close();
+
+        Assert.assertEquals( "Close should flush", 1, ch.outboundMessages().size() );
+    }
+}
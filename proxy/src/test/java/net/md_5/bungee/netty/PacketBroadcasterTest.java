@@ -0,0 +1,154 @@
+package net.md_5.bungee.netty;
+
+import com.google.common.base.Strings;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import net.md_5.bungee.compress.ZlibPool;
+import net.md_5.bungee.protocol.DefinedPacket;
+import net.md_5.bungee.protocol.MinecraftDecoder;
+import net.md_5.bungee.protocol.MinecraftEncoder;
+import net.md_5.bungee.protocol.Protocol;
+import net.md_5.bungee.protocol.ProtocolConstants;
+import net.md_5.bungee.protocol.Varint21FrameDecoder;
+import net.md_5.bungee.protocol.Varint21LengthFieldPrepender;
+import net.md_5.bungee.protocol.packet.Chat;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PacketBroadcasterTest
+{
+
+    @Test
+    public void testUncompressed()
+    {
+        assertSameAsEncoder( -1, new Chat( "Hello" ) );
+    }
+
+    @Test
+    public void testBelowThreshold()
+    {
+        assertSameAsEncoder( 256, new Chat( "Hello" ) );
+    }
+
+    @Test
+    public void testCompressed()
+    {
+        assertSameAsEncoder( 64, new Chat( Strings.repeat( "Hello ", 100 ) ) );
+    }
+
+    @Test
+    public void testPooledContext()
+    {
+        assertSameAsEncoder( 64, new Chat( Strings.repeat( "Hello ", 100 ) ) );
+        long created = ZlibPool.getCreated();
+        assertSameAsEncoder( 64, new Chat( Strings.repeat( "Hello ", 100 ) ) );
+        Assert.assertEquals( "Broadcasts should reuse pooled contexts", created, ZlibPool.getCreated() );
+    }
+
+    @Test
+    public void testNotInGame()
+    {
+        EmbeddedChannel ch = newChannel();
+        ch.pipeline().get( MinecraftEncoder.class ).setProtocol( Protocol.GAME );
+        ChannelWrapper wrapper = new ChannelWrapper( ch.pipeline().firstContext() );
+
+        PacketBroadcaster broadcaster = new PacketBroadcaster( new Chat( "Hello" ) );
+        broadcaster.send( wrapper );
+        broadcaster.release();
+
+        ByteBuf actual = ch.readOutbound();
+        ch.writeOutbound( new Chat( "Hello" ) );
+        ByteBuf expected = ch.readOutbound();
+        Assert.assertEquals( "Packet should go through the encoder", expected, actual );
+        actual.release();
+        expected.release();
+        ch.finishAndReleaseAll();
+    }
+
+    @Test
+    public void testNotRegistered()
+    {
+        // Has no id in any version
+        DefinedPacket packet = new Chat( "Hello" )
+        {
+        };
+        final List<Object> written = new ArrayList<>();
+        PacketBroadcaster broadcaster = new PacketBroadcaster( packet );
+        for ( int i = 0; i < 2; i++ )
+        {
+            EmbeddedChannel ch = newChannel();
+            ch.pipeline().addLast( new ChannelOutboundHandlerAdapter()
+            {
+                @Override
+                public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception
+                {
+                    written.add( msg );
+                    ctx.write( msg, promise );
+                }
+            } );
+            ChannelWrapper wrapper = new ChannelWrapper( ch.pipeline().firstContext() );
+            wrapper.setProtocol( Protocol.GAME );
+            wrapper.setVersion( ProtocolConstants.MINECRAFT_1_12_2 );
+            broadcaster.send( wrapper );
+            ch.finishAndReleaseAll();
+        }
+        broadcaster.release();
+
+        // Each client fails in its own encoder, as it would without broadcasting
+        Assert.assertEquals( Arrays.asList( packet, packet ), written );
+    }
+
+    private static void assertSameAsEncoder(int threshold, DefinedPacket packet)
+    {
+        EmbeddedChannel ch = newChannel();
+        ChannelWrapper wrapper = new ChannelWrapper( ch.pipeline().firstContext() );
+        wrapper.setProtocol( Protocol.GAME );
+        wrapper.setVersion( ProtocolConstants.MINECRAFT_1_12_2 );
+        if ( threshold != -1 )
+        {
+            wrapper.setCompressionThreshold( threshold );
+        }
+
+        ch.writeOutbound( packet );
+        ByteBuf expected = ch.readOutbound();
+
+        PacketBroadcaster broadcaster = new PacketBroadcaster( packet );
+        broadcaster.send( wrapper );
+        broadcaster.send( wrapper );
+        broadcaster.release();
+
+        for ( int i = 0; i < 2; i++ )
+        {
+            ByteBuf actual = ch.readOutbound();
+            Assert.assertEquals( "Broadcast should match the encoder output", expected, actual );
+            actual.release();
+        }
+        expected.release();
+        ch.finishAndReleaseAll();
+    }
+
+    private static EmbeddedChannel newChannel()
+    {
+        EmbeddedChannel ch = new EmbeddedChannel()
+        {
+            @Override
+            public SocketAddress remoteAddress()
+            {
+                return new InetSocketAddress( 25565 ); // ChannelWrapper expects an IP address
+            }
+        };
+        ch.pipeline().addLast( PipelineUtils.FRAME_DECODER, new Varint21FrameDecoder() );
+        ch.pipeline().addLast( PipelineUtils.FRAME_PREPENDER, new Varint21LengthFieldPrepender() );
+        ch.pipeline().addLast( PipelineUtils.PACKET_DECODER, new MinecraftDecoder( Protocol.HANDSHAKE, true, ProtocolConstants.MINECRAFT_1_12_2 ) );
+        ch.pipeline().addLast( PipelineUtils.PACKET_ENCODER, new MinecraftEncoder( Protocol.HANDSHAKE, true, ProtocolConstants.MINECRAFT_1_12_2 ) );
+        return ch;
+    }
+}
@@ -0,0 +1,51 @@
+package net.md_5.bungee.netty;
+
+import net.md_5.bungee.protocol.packet.Chat;
+import net.md_5.bungee.protocol.packet.KeepAlive;
+import net.md_5.bungee.protocol.packet.Team;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PacketHandlerTest
+{
+
+    @Test
+    public void testHandles()
+    {
+        PacketHandler handler = new ChatHandler();
+
+        Assert.assertTrue( "Overridden handle should be found", handler.handles( Chat.class ) );
+        Assert.assertFalse( "Default handle should be ignored", handler.handles( KeepAlive.class ) );
+    }
+
+    @Test
+    public void testInherited()
+    {
+        PacketHandler handler = new ChatHandler()
+        {
+            @Override
+            public void handle(Team team) throws Exception
+            {
+            }
+        };
+
+        Assert.assertTrue( handler.handles( Chat.class ) );
+        Assert.assertTrue( handler.handles( Team.class ) );
+        Assert.assertFalse( handler.handles( KeepAlive.class ) );
+    }
+
+    private static class ChatHandler extends PacketHandler
+    {
+
+        @Override
+        public void handle(Chat chat) throws Exception
+        {
+        }
+
+        @Override
+        public String toString()
+        {
+            return "ChatHandler";
+        }
+    }
+}
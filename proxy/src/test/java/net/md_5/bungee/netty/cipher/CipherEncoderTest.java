@@ -0,0 +1,103 @@
+package net.md_5.bungee.netty.cipher;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.security.GeneralSecurityException;
+import java.util.Random;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import net.md_5.bungee.jni.cipher.BungeeCipher;
+import net.md_5.bungee.jni.cipher.JavaCipher;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CipherEncoderTest
+{
+
+    private static final SecretKey secret = new SecretKeySpec( new byte[ 16 ], "AES" );
+    //
+    private final Random random = new Random( 1 );
+
+    @Test
+    public void testBatch() throws Exception
+    {
+        EmbeddedChannel ch = new EmbeddedChannel( new CipherEncoder( cipher( true ) ) );
+        ByteBuf plain = Unpooled.buffer();
+
+        ChannelFuture[] futures = new ChannelFuture[ 3 ];
+        for ( int i = 0; i < futures.length; i++ )
+        {
+            ByteBuf frame = randomBuffer( 100 + i );
+            plain.writeBytes( frame, frame.readerIndex(), frame.readableBytes() );
+            futures[i] = ch.write( frame );
+        }
+        Assert.assertTrue( "Frames should be held until flushed", ch.outboundMessages().isEmpty() );
+
+        ch.flush();
+        Assert.assertEquals( "Frames should be written as one", 1, ch.outboundMessages().size() );
+        for ( ChannelFuture future : futures )
+        {
+            Assert.assertTrue( future.isSuccess() );
+        }
+
+        ByteBuf expected = Unpooled.buffer();
+        cipher( true ).cipher( plain, expected );
+        ByteBuf out = ch.readOutbound();
+        Assert.assertEquals( expected, out );
+
+        out.release();
+        Assert.assertFalse( ch.finish() );
+    }
+
+    @Test
+    public void testClose() throws Exception
+    {
+        EmbeddedChannel ch = new EmbeddedChannel( new CipherEncoder( cipher( true ) ) );
+        ChannelFuture future = ch.write( randomBuffer( 100 ) );
+        ch.close();
+
+        Assert.assertTrue( "Batch should be flushed before closing", future.isSuccess() );
+        Assert.assertTrue( ch.finishAndReleaseAll() );
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception
+    {
+        EmbeddedChannel encoder = new EmbeddedChannel( new CipherEncoder( cipher( true ) ) );
+        EmbeddedChannel decoder = new EmbeddedChannel( new CipherDecoder( cipher( false ) ) );
+
+        for ( int size : new int[]
+        {
+            1, 16, 1000
+        } )
+        {
+            ByteBuf frame = randomBuffer( size );
+            encoder.writeOutbound( frame.copy() );
+            decoder.writeInbound( (ByteBuf) encoder.readOutbound() );
+
+            ByteBuf out = decoder.readInbound();
+            Assert.assertEquals( frame, out );
+            frame.release();
+            out.release();
+        }
+
+        Assert.assertFalse( encoder.finish() );
+        Assert.assertFalse( decoder.finish() );
+    }
+
+    private static BungeeCipher cipher(boolean forEncryption) throws GeneralSecurityException
+    {
+        BungeeCipher cipher = new JavaCipher();
+        cipher.init( forEncryption, secret );
+        return cipher;
+    }
+
+    private ByteBuf randomBuffer(int size)
+    {
+        byte[] bytes = new byte[ size ];
+        random.nextBytes( bytes );
+        return Unpooled.directBuffer( size ).writeBytes( bytes );
+    }
+}